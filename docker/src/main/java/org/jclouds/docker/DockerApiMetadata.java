@@ -38,6 +38,24 @@ import static org.jclouds.reflect.Reflection2.typeToken;
 public class DockerApiMetadata extends BaseHttpApiMetadata<DockerApi> {
 
     public static final String DOCKER_CA_CERT_PATH = "docker.cacert.path";
+    /**
+     * Maximum number of concurrent inspect calls issued when listing images or containers.
+     */
+    public static final String DOCKER_INSPECT_CONCURRENCY = "docker.inspect.concurrency";
+    /**
+     * Number of seconds an inspected image is kept before it is inspected again.
+     */
+    public static final String DOCKER_IMAGE_CACHE_TTL = "docker.image.cache.ttl";
+    /**
+     * Maximum number of concurrent calls issued by a bulk container operation. The http client keeps as many
+     * idle connections around so they can be reused.
+     */
+    public static final String DOCKER_BULK_PARALLELISM = "docker.bulk.parallelism";
+    /**
+     * Path of the Unix domain socket of a local daemon, such as /var/run/docker.sock. When set, every call goes
+     * through this socket and the endpoint only needs to be a local http url, such as http://localhost.
+     */
+    public static final String DOCKER_UNIX_SOCKET_PATH = "docker.unixsocket.path";
 
    @Override
    public Builder toBuilder() {
@@ -58,6 +76,10 @@ public class DockerApiMetadata extends BaseHttpApiMetadata<DockerApi> {
       properties.setProperty(ComputeServiceProperties.IMAGE_LOGIN_USER, "root:password");
       properties.setProperty(TEMPLATE, "osFamily=UBUNTU,os64Bit=true");
       properties.setProperty(DOCKER_CA_CERT_PATH, "");
+      properties.setProperty(DOCKER_INSPECT_CONCURRENCY, "10");
+      properties.setProperty(DOCKER_IMAGE_CACHE_TTL, "60");
+      properties.setProperty(DOCKER_BULK_PARALLELISM, "20");
+      properties.setProperty(DOCKER_UNIX_SOCKET_PATH, "");
       return properties;
    }
 
@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.docker.compute.strategy;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.docker.DockerApiMetadata.DOCKER_BULK_PARALLELISM;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.docker.DockerApi;
+import org.jclouds.docker.domain.Container;
+import org.jclouds.docker.options.RemoveContainerOptions;
+import org.jclouds.logging.Logger;
+import org.jclouds.rest.ResourceNotFoundException;
+
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+/**
+ * Applies container operations to many containers at once. The calls are spread over the user executor, with at
+ * most {@code docker.bulk.parallelism} of them in flight, so they share the pooled connections of the http client
+ * instead of running one after the other.
+ * <p>
+ * A failure on one container does not stop the others: every operation returns a {@link Result} with the outcome of
+ * each container.
+ */
+@Singleton
+public class BulkContainerOperations {
+
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   private final DockerApi api;
+   private final ListeningExecutorService userExecutor;
+   private final int parallelism;
+
+   @Inject
+   public BulkContainerOperations(DockerApi api,
+         @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor,
+         @Named(DOCKER_BULK_PARALLELISM) int parallelism) {
+      checkArgument(parallelism > 0, "parallelism must be positive");
+      this.api = checkNotNull(api, "api");
+      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+      this.parallelism = parallelism;
+   }
+
+   /**
+    * Inspects the given containers. Containers that do not exist are reported as failed with a
+    * {@link ResourceNotFoundException}.
+    */
+   public Result<Container> inspect(Iterable<String> containerIds) {
+      return apply(containerIds, parallelism, new Function<String, Container>() {
+         @Override
+         public Container apply(String id) {
+            Container container = api.getContainerApi().inspectContainer(id);
+            if (container == null) {
+               throw new ResourceNotFoundException("container " + id + " not found");
+            }
+            return container;
+         }
+      });
+   }
+
+   public Result<Void> stop(Iterable<String> containerIds) {
+      return apply(containerIds, parallelism, new Function<String, Void>() {
+         @Override
+         public Void apply(String id) {
+            api.getContainerApi().stopContainer(id);
+            return null;
+         }
+      });
+   }
+
+   public Result<Void> kill(Iterable<String> containerIds) {
+      return apply(containerIds, parallelism, new Function<String, Void>() {
+         @Override
+         public Void apply(String id) {
+            api.getContainerApi().kill(id);
+            return null;
+         }
+      });
+   }
+
+   /**
+    * Removes the given containers, killing the ones that are still running.
+    */
+   public Result<Void> remove(Iterable<String> containerIds) {
+      return apply(containerIds, parallelism, new Function<String, Void>() {
+         @Override
+         public Void apply(String id) {
+            api.getContainerApi().removeContainer(id, RemoveContainerOptions.Builder.force(true));
+            return null;
+         }
+      });
+   }
+
+   public Result<Void> pause(Iterable<String> containerIds) {
+      return apply(containerIds, parallelism, new Function<String, Void>() {
+         @Override
+         public Void apply(String id) {
+            api.getContainerApi().pause(id);
+            return null;
+         }
+      });
+   }
+
+   public Result<Void> unpause(Iterable<String> containerIds) {
+      return apply(containerIds, parallelism, new Function<String, Void>() {
+         @Override
+         public Void apply(String id) {
+            api.getContainerApi().unpause(id);
+            return null;
+         }
+      });
+   }
+
+   /**
+    * Applies {@code operation} to each id, keeping at most {@code parallelism} calls in flight.
+    */
+   public <T> Result<T> apply(Iterable<String> ids, int parallelism, final Function<String, T> operation) {
+      checkArgument(parallelism > 0, "parallelism must be positive");
+      // each container is operated on once, however many times its id is given
+      final List<String> idList = ImmutableSet.copyOf(ids).asList();
+      final AtomicInteger next = new AtomicInteger();
+      final AtomicReferenceArray<Object> outcomes = new AtomicReferenceArray<Object>(idList.size());
+      List<ListenableFuture<Void>> workers = Lists.newArrayList();
+      for (int i = 0; i < Math.min(parallelism, idList.size()); i++) {
+         workers.add(userExecutor.submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+               for (int index = next.getAndIncrement(); index < idList.size(); index = next.getAndIncrement()) {
+                  try {
+                     outcomes.set(index, new Outcome(operation.apply(idList.get(index)), null));
+                  } catch (RuntimeException e) {
+                     outcomes.set(index, new Outcome(null, e));
+                  }
+               }
+               return null;
+            }
+         }));
+      }
+
+      ListenableFuture<List<Void>> all = Futures.allAsList(workers);
+      try {
+         all.get();
+      } catch (InterruptedException e) {
+         next.set(idList.size());
+         all.cancel(true);
+         Thread.currentThread().interrupt();
+         throw Throwables.propagate(e);
+      } catch (ExecutionException e) {
+         // only errors escape the workers
+         next.set(idList.size());
+         all.cancel(true);
+         throw Throwables.propagate(e.getCause());
+      }
+
+      ImmutableSet.Builder<String> succeeded = ImmutableSet.builder();
+      ImmutableMap.Builder<String, T> values = ImmutableMap.builder();
+      ImmutableMap.Builder<String, Exception> failed = ImmutableMap.builder();
+      for (int i = 0; i < idList.size(); i++) {
+         String id = idList.get(i);
+         Outcome outcome = (Outcome) outcomes.get(i);
+         if (outcome.failure != null) {
+            logger.debug("<< %s failed: %s", id, outcome.failure.getMessage());
+            failed.put(id, outcome.failure);
+         } else {
+            succeeded.add(id);
+            if (outcome.value != null) {
+               @SuppressWarnings("unchecked")
+               T value = (T) outcome.value;
+               values.put(id, value);
+            }
+         }
+      }
+      return new Result<T>(succeeded.build(), values.build(), failed.build());
+   }
+
+   private static final class Outcome {
+      private final Object value;
+      private final Exception failure;
+
+      private Outcome(Object value, Exception failure) {
+         this.value = value;
+         this.failure = failure;
+      }
+   }
+
+   /**
+    * The outcome of a bulk operation, keyed by container id in the order the ids were given.
+    */
+   public static final class Result<T> {
+      private final Set<String> succeeded;
+      private final Map<String, T> values;
+      private final Map<String, Exception> failed;
+
+      private Result(Set<String> succeeded, Map<String, T> values, Map<String, Exception> failed) {
+         this.succeeded = succeeded;
+         this.values = values;
+         this.failed = failed;
+      }
+
+      /**
+       * The ids the operation succeeded for.
+       */
+      public Set<String> succeeded() {
+         return succeeded;
+      }
+
+      /**
+       * The values returned for the succeeded ids, if the operation returns any.
+       */
+      public Map<String, T> values() {
+         return values;
+      }
+
+      /**
+       * The ids the operation failed for, with the cause of each failure.
+       */
+      public Map<String, Exception> failed() {
+         return failed;
+      }
+   }
+
+}
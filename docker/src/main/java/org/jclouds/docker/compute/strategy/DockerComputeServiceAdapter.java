@@ -16,12 +16,17 @@
  */
 package org.jclouds.docker.compute.strategy;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.collect.Iterables.find;
+import static com.google.common.collect.Iterables.tryFind;
+import static org.jclouds.docker.DockerApiMetadata.DOCKER_IMAGE_CACHE_TTL;
+import static org.jclouds.docker.DockerApiMetadata.DOCKER_INSPECT_CONCURRENCY;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -48,10 +53,15 @@ import org.jclouds.domain.Location;
 import org.jclouds.domain.LoginCredentials;
 import org.jclouds.logging.Logger;
 
+import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -64,15 +74,28 @@ import com.google.common.collect.Sets;
 public class DockerComputeServiceAdapter implements
         ComputeServiceAdapter<Container, Hardware, Image, Location> {
 
+   private static final Pattern IMAGE_ID = Pattern.compile("(sha256:)?\\p{XDigit}{64}");
+
    @Resource
    @Named(ComputeServiceConstants.COMPUTE_LOGGER)
    protected Logger logger = Logger.NULL;
 
    private final DockerApi api;
+   private final BulkContainerOperations bulkOperations;
+   private final int inspectConcurrency;
+   // image content never changes for a given id, only its repo tags may, hence the short ttl
+   private final Cache<String, Image> imageCache;
 
    @Inject
-   public DockerComputeServiceAdapter(DockerApi api) {
+   public DockerComputeServiceAdapter(DockerApi api,
+         BulkContainerOperations bulkOperations,
+         @Named(DOCKER_INSPECT_CONCURRENCY) int inspectConcurrency,
+         @Named(DOCKER_IMAGE_CACHE_TTL) long imageCacheTtl) {
+      checkArgument(inspectConcurrency > 0, "inspect concurrency must be positive");
       this.api = checkNotNull(api, "api");
+      this.bulkOperations = checkNotNull(bulkOperations, "bulkOperations");
+      this.inspectConcurrency = inspectConcurrency;
+      this.imageCache = CacheBuilder.newBuilder().expireAfterWrite(imageCacheTtl, TimeUnit.SECONDS).build();
    }
 
    @Override
@@ -176,54 +199,116 @@ public class DockerComputeServiceAdapter implements
 
    /**
     * Method based on {@link org.jclouds.docker.features.ImageApi#listImages()}. It retrieves additional
-    * information by inspecting each image.
+    * information by inspecting, in parallel, each image that is not already cached.
     *
     * @see org.jclouds.compute.ComputeServiceAdapter#listImages()
     */
    @Override
    public Set<Image> listImages() {
+      List<ImageSummary> summaries = api.getImageApi().listImages();
+      Map<String, Image> inspected = Maps.newHashMap();
+      List<String> uncached = Lists.newArrayList();
+      for (ImageSummary imageSummary : summaries) {
+         Image cached = imageCache.getIfPresent(imageSummary.id());
+         if (cached != null) {
+            inspected.put(imageSummary.id(), cached);
+         } else {
+            uncached.add(imageSummary.id());
+         }
+      }
+      // less efficient than just listImages but returns richer json that needs repoTags coming from listImages
+      inspected.putAll(inspectAll(uncached, new Function<String, Image>() {
+         @Override
+         public Image apply(String id) {
+            return api.getImageApi().inspectImage(id);
+         }
+      }));
+
       Set<Image> images = Sets.newHashSet();
-      for (ImageSummary imageSummary : api.getImageApi().listImages()) {
-         // less efficient than just listImages but returns richer json that needs repoTags coming from listImages
-         Image inspected = api.getImageApi().inspectImage(imageSummary.id());
-         inspected = Image.create(inspected.id(), inspected.author(), inspected.comment(), inspected.config(),
-                    inspected.containerConfig(), inspected.parent(), inspected.created(), inspected.container(),
-                 inspected.dockerVersion(), inspected.architecture(), inspected.os(), inspected.size(),
-                    inspected.virtualSize(), imageSummary.repoTags());
-         images.add(inspected);
+      for (ImageSummary imageSummary : summaries) {
+         Image image = inspected.get(imageSummary.id());
+         if (image == null) {
+            // removed since it was listed
+            continue;
+         }
+         image = withRepoTags(image, imageSummary.repoTags());
+         imageCache.put(imageSummary.id(), image);
+         images.add(image);
       }
       return images;
    }
 
    @Override
    public Image getImage(final String imageId) {
-      // less efficient than just inspectImage but listImages return repoTags
-      return find(listImages(), new Predicate<Image>() {
-
-         @Override
-         public boolean apply(Image input) {
-            return input.id().equals(imageId);
+      // only a full image id is immutable, a repo:tag name may move to another image at any time
+      if (IMAGE_ID.matcher(imageId).matches()) {
+         Image cached = imageCache.getIfPresent(imageId);
+         if (cached != null) {
+            return cached;
+         }
+      }
+      Image image = api.getImageApi().inspectImage(imageId);
+      if (image == null) {
+         return null;
+      }
+      if (image.repoTags().isEmpty()) {
+         // the inspect json does not carry the repo tags, so look them up in the (cheap) image listing
+         final String id = image.id();
+         ImageSummary imageSummary = tryFind(api.getImageApi().listImages(), new Predicate<ImageSummary>() {
+
+            @Override
+            public boolean apply(ImageSummary input) {
+               return input.id().equals(id);
+            }
+         }).orNull();
+         if (imageSummary != null) {
+            image = withRepoTags(image, imageSummary.repoTags());
          }
-      }, null);
+      }
+      imageCache.put(image.id(), image);
+      return image;
    }
 
    @Override
    public Iterable<Container> listNodes() {
-      Set<Container> containers = Sets.newHashSet();
+      List<String> ids = Lists.newArrayList();
       for (ContainerSummary containerSummary : api.getContainerApi().listContainers(ListContainerOptions.Builder.all(true))) {
-         // less efficient than just listNodes but returns richer json
-         containers.add(api.getContainerApi().inspectContainer(containerSummary.id()));
+         ids.add(containerSummary.id());
       }
-      return containers;
+      // less efficient than just listNodes but returns richer json
+      return inspectContainers(ids);
    }
 
    @Override
    public Iterable<Container> listNodesByIds(final Iterable<String> ids) {
-      Set<Container> containers = Sets.newHashSet();
-      for (String id : ids) {
-         containers.add(api.getContainerApi().inspectContainer(id));
+      return inspectContainers(ImmutableList.copyOf(ids));
+   }
+
+   private Set<Container> inspectContainers(List<String> ids) {
+      return Sets.newHashSet(inspectAll(ids, new Function<String, Container>() {
+         @Override
+         public Container apply(String id) {
+            return api.getContainerApi().inspectContainer(id);
+         }
+      }).values());
+   }
+
+   private static Image withRepoTags(Image image, List<String> repoTags) {
+      return Image.create(image.id(), image.author(), image.comment(), image.config(), image.containerConfig(),
+            image.parent(), image.created(), image.container(), image.dockerVersion(), image.architecture(),
+            image.os(), image.size(), image.virtualSize(), repoTags);
+   }
+
+   /**
+    * Applies {@code inspect} to each id, keeping at most {@code inspectConcurrency} calls in flight. Ids that could
+    * not be found (a {@code null} result) are left out of the returned map.
+    */
+   private <T> Map<String, T> inspectAll(List<String> ids, Function<String, T> inspect) {
+      BulkContainerOperations.Result<T> result = bulkOperations.apply(ids, inspectConcurrency, inspect);
+      if (!result.failed().isEmpty()) {
+         throw Throwables.propagate(Iterables.get(result.failed().values(), 0));
       }
-      return containers;
+      return result.values();
    }
 
    @Override
@@ -16,37 +16,91 @@
  */
 package org.jclouds.docker.config;
 
+import static org.jclouds.Constants.PROPERTY_CONNECTION_TIMEOUT;
+import static org.jclouds.Constants.PROPERTY_SO_TIMEOUT;
+import static org.jclouds.docker.DockerApiMetadata.DOCKER_BULK_PARALLELISM;
+import static org.jclouds.docker.DockerApiMetadata.DOCKER_UNIX_SOCKET_PATH;
+
 import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.net.SocketFactory;
 
 import org.jclouds.docker.suppliers.DockerSSLContextSupplier;
+import org.jclouds.docker.util.UnixDomainSocketFactory;
 import org.jclouds.domain.Credentials;
 import org.jclouds.http.okhttp.OkHttpClientSupplier;
 import org.jclouds.location.Provider;
 
+import com.google.common.base.Strings;
 import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
+import com.squareup.okhttp.ConnectionPool;
 import com.squareup.okhttp.ConnectionSpec;
 import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Protocol;
 import com.squareup.okhttp.TlsVersion;
 
+/**
+ * Supplies the {@link OkHttpClient} shared by all the calls to the Docker daemon. The client, its connection pool
+ * and its SSL socket factory are built once, on first use.
+ */
 @Singleton
 public class DockerOkHttpClientSupplier implements OkHttpClientSupplier {
 
+    private static final long KEEP_ALIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
     private final DockerSSLContextSupplier dockerSSLContextSupplier;
     private final Supplier<Credentials> creds;
+    private final int maxIdleConnections;
+    private final int connectTimeout;
+    private final int soTimeout;
+    private final String unixSocketPath;
+    private final Supplier<OkHttpClient> client = Suppliers.memoize(new Supplier<OkHttpClient>() {
+        @Override
+        public OkHttpClient get() {
+            return newClient();
+        }
+    });
 
     @Inject
-    DockerOkHttpClientSupplier(DockerSSLContextSupplier dockerSSLContextSupplier, @Provider Supplier<Credentials> creds) {
+    DockerOkHttpClientSupplier(DockerSSLContextSupplier dockerSSLContextSupplier, @Provider Supplier<Credentials> creds,
+                               @Named(DOCKER_BULK_PARALLELISM) int maxIdleConnections,
+                               @Named(PROPERTY_CONNECTION_TIMEOUT) int connectTimeout,
+                               @Named(PROPERTY_SO_TIMEOUT) int soTimeout,
+                               @Named(DOCKER_UNIX_SOCKET_PATH) String unixSocketPath) {
         this.dockerSSLContextSupplier = dockerSSLContextSupplier;
         this.creds = creds;
+        this.maxIdleConnections = maxIdleConnections;
+        this.connectTimeout = connectTimeout;
+        this.soTimeout = soTimeout;
+        this.unixSocketPath = unixSocketPath;
     }
 
     @Override
     public OkHttpClient get() {
+        return client.get();
+    }
+
+    private OkHttpClient newClient() {
         OkHttpClient client = new OkHttpClient();
+        // the daemon only speaks http/1.1, skip the protocol negotiation
+        client.setProtocols(ImmutableList.of(Protocol.HTTP_1_1));
+        // keep enough idle connections for bulk operations to reuse them instead of reconnecting
+        client.setConnectionPool(new ConnectionPool(maxIdleConnections, KEEP_ALIVE_MILLIS));
+        client.setConnectTimeout(connectTimeout, TimeUnit.MILLISECONDS);
+        client.setReadTimeout(soTimeout, TimeUnit.MILLISECONDS);
+        client.setWriteTimeout(soTimeout, TimeUnit.MILLISECONDS);
+        if (!Strings.isNullOrEmpty(unixSocketPath)) {
+            // talk to a local daemon over its unix domain socket, bypassing tcp and tls
+            client.setSocketFactory(UnixSockets.socketFactory(new File(unixSocketPath)));
+            client.setConnectionSpecs(ImmutableList.of(ConnectionSpec.CLEARTEXT));
+            return client;
+        }
         ConnectionSpec tlsSpec = new ConnectionSpec.Builder(ConnectionSpec.MODERN_TLS)
                 .tlsVersions(TlsVersion.TLS_1_0, TlsVersion.TLS_1_1, TlsVersion.TLS_1_2)
                 .build();
@@ -60,4 +114,21 @@ public class DockerOkHttpClientSupplier implements OkHttpClientSupplier {
         return client;
     }
 
+    /**
+     * Keeps {@link UnixDomainSocketFactory}, and the optional junixsocket classes it needs, from being loaded unless
+     * a unix socket is configured.
+     */
+    private static final class UnixSockets {
+
+        static SocketFactory socketFactory(File path) {
+            try {
+                Class.forName("org.newsclub.net.unix.AFUNIXSocket", false, UnixSockets.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(DOCKER_UNIX_SOCKET_PATH
+                        + " requires junixsocket-common and junixsocket-native-common on the classpath", e);
+            }
+            return new UnixDomainSocketFactory(path);
+        }
+    }
+
 }
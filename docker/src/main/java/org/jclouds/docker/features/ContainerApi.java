@@ -41,6 +41,7 @@ import org.jclouds.docker.domain.StatusCode;
 import org.jclouds.docker.options.AttachOptions;
 import org.jclouds.docker.options.CommitOptions;
 import org.jclouds.docker.options.ListContainerOptions;
+import org.jclouds.docker.options.LogsOptions;
 import org.jclouds.docker.options.RemoveContainerOptions;
 import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.Fallback;
@@ -192,6 +193,20 @@ public interface ContainerApi {
    @Path("/containers/{id}/attach")
    InputStream attach(@PathParam("id") String containerId, AttachOptions options);
 
+   /**
+    * Returns the stdout and stderr logs of a container, multiplexed unless the container has a TTY. The stream can
+    * be demultiplexed incrementally with {@link org.jclouds.docker.util.DockerInputStream#demultiplex}. With
+    * {@link LogsOptions#follow(boolean)}, it stays open and delivers new entries as they are written, until it is
+    * closed or the container stops.
+    *
+    * @param containerId The id of the container.
+    * @param options the logs options @see org.jclouds.docker.options.LogsOptions
+    */
+   @Named("container:logs")
+   @GET
+   @Path("/containers/{id}/logs")
+   InputStream logs(@PathParam("id") String containerId, LogsOptions options);
+
    /**
     * Block until container @param containerId stops, then returns the exit code
     */
@@ -26,17 +26,22 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.core.MediaType;
 
+import org.jclouds.docker.domain.Event;
 import org.jclouds.docker.domain.Exec;
 import org.jclouds.docker.domain.ExecCreateParams;
 import org.jclouds.docker.domain.ExecInspect;
 import org.jclouds.docker.domain.ExecStartParams;
 import org.jclouds.docker.domain.Info;
 import org.jclouds.docker.domain.Version;
+import org.jclouds.docker.functions.ParseEventStream;
 import org.jclouds.docker.options.BuildOptions;
+import org.jclouds.docker.options.EventsOptions;
 import org.jclouds.docker.util.DockerInputStream;
+import org.jclouds.docker.util.EventStream;
 import org.jclouds.io.Payload;
 import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.Headers;
+import org.jclouds.rest.annotations.ResponseParser;
 import org.jclouds.rest.binders.BindToJsonPayload;
 
 @Consumes(MediaType.APPLICATION_JSON)
@@ -90,6 +95,35 @@ public interface MiscApi {
    @Headers(keys = { "Content-Type", "Connection" }, values = { "application/tar", "close" })
    InputStream build(Payload inputStream, BuildOptions options);
 
+   /**
+    * Streams the events of the docker daemon, such as containers being
+    * created, started or dying, as they happen.
+    *
+    * @return an iterator of {@link Event}s parsed as they are received, which
+    *         must be closed to release the connection
+    */
+   @Named("events")
+   @GET
+   @Path("/events")
+   @ResponseParser(ParseEventStream.class)
+   EventStream events();
+
+   /**
+    * Streams the events of the docker daemon.
+    *
+    * @param options
+    *           the time window of the events. Without
+    *           {@link EventsOptions#until(long)}, the stream stays open and
+    *           new events are delivered as they happen.
+    * @return an iterator of {@link Event}s parsed as they are received, which
+    *         must be closed to release the connection
+    */
+   @Named("events")
+   @GET
+   @Path("/events")
+   @ResponseParser(ParseEventStream.class)
+   EventStream events(EventsOptions options);
+
    /**
     * Sets up an exec instance in a running container with given Id.
     *
@@ -116,7 +150,9 @@ public interface MiscApi {
     * @param execStartParams
     *           start parameters
     * @return raw docker stream which can be wrapped to
-    *         {@link DockerInputStream}
+    *         {@link DockerInputStream}, whose <code>demultiplex</code>
+    *         methods copy the output of the command without allocating
+    *         each frame
     * @see #execCreate(String, ExecCreateParams)
     * @see DockerInputStream
     */
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.docker.options;
+
+import org.jclouds.http.options.BaseHttpRequestOptions;
+
+public class LogsOptions extends BaseHttpRequestOptions {
+
+   /**
+    * @param follow keep the connection open and return new log entries as they are written. Default false.
+    * @return LogsOptions
+    */
+   public LogsOptions follow(boolean follow) {
+      this.queryParameters.put("follow", String.valueOf(follow));
+      return this;
+   }
+
+   /**
+    * @param stdout return the stdout log. Default false.
+    * @return LogsOptions
+    */
+   public LogsOptions stdout(boolean stdout) {
+      this.queryParameters.put("stdout", String.valueOf(stdout));
+      return this;
+   }
+
+   /**
+    * @param stderr return the stderr log. Default false.
+    * @return LogsOptions
+    */
+   public LogsOptions stderr(boolean stderr) {
+      this.queryParameters.put("stderr", String.valueOf(stderr));
+      return this;
+   }
+
+   /**
+    * @param since only return the log entries written after this time, in seconds since the epoch. Requires API
+    *              version 1.19.
+    * @return LogsOptions
+    */
+   public LogsOptions since(long since) {
+      this.queryParameters.put("since", String.valueOf(since));
+      return this;
+   }
+
+   /**
+    * @param timestamps prefix each log line with its timestamp. Default false.
+    * @return LogsOptions
+    */
+   public LogsOptions timestamps(boolean timestamps) {
+      this.queryParameters.put("timestamps", String.valueOf(timestamps));
+      return this;
+   }
+
+   /**
+    * @param tail only return this number of lines from the end of the logs. All the lines are returned by default.
+    * @return LogsOptions
+    */
+   public LogsOptions tail(int tail) {
+      this.queryParameters.put("tail", String.valueOf(tail));
+      return this;
+   }
+
+   public static class Builder {
+
+      /**
+       * @see org.jclouds.docker.options.LogsOptions#follow
+       */
+      public static LogsOptions follow(boolean follow) {
+         LogsOptions options = new LogsOptions();
+         return options.follow(follow);
+      }
+
+      /**
+       * @see org.jclouds.docker.options.LogsOptions#stdout
+       */
+      public static LogsOptions stdout(boolean stdout) {
+         LogsOptions options = new LogsOptions();
+         return options.stdout(stdout);
+      }
+
+      /**
+       * @see org.jclouds.docker.options.LogsOptions#stderr
+       */
+      public static LogsOptions stderr(boolean stderr) {
+         LogsOptions options = new LogsOptions();
+         return options.stderr(stderr);
+      }
+
+      /**
+       * @see org.jclouds.docker.options.LogsOptions#since
+       */
+      public static LogsOptions since(long since) {
+         LogsOptions options = new LogsOptions();
+         return options.since(since);
+      }
+
+      /**
+       * @see org.jclouds.docker.options.LogsOptions#timestamps
+       */
+      public static LogsOptions timestamps(boolean timestamps) {
+         LogsOptions options = new LogsOptions();
+         return options.timestamps(timestamps);
+      }
+
+      /**
+       * @see org.jclouds.docker.options.LogsOptions#tail
+       */
+      public static LogsOptions tail(int tail) {
+         LogsOptions options = new LogsOptions();
+         return options.tail(tail);
+      }
+   }
+
+}
@@ -18,15 +18,33 @@
 package org.jclouds.docker.util;
 
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+
+import org.jclouds.docker.util.StdStreamData.StdStreamType;
 
 /**
  * Extension to {@link DataInputStream} which adds method
  * {@link #readStdStreamData()} to allow read multiplexed standard streams.
+ * <p>
+ * The {@link #demultiplex(StdStreamSink)} methods stream the frames to their
+ * destination through a single buffer reused for all the frames, so they are
+ * better suited to long or verbose streams than {@link #readStdStreamData()},
+ * which allocates each payload.
  */
 public final class DockerInputStream extends DataInputStream {
 
+   /**
+    * Size of the buffer used by {@link #demultiplex(StdStreamSink)}.
+    */
+   public static final int BUFFER_SIZE = 8192;
+
+   private final byte[] header = new byte[8];
+   private byte[] buffer;
+
    /**
     * Ctor from superclass.
     *
@@ -43,31 +61,134 @@ public final class DockerInputStream extends DataInputStream {
     * @throws IOException
     */
    public StdStreamData readStdStreamData() throws IOException {
-      byte[] header = new byte[8];
-      // try to read first byte from the message header - just to check if we
-      // are at the end
-      // of stream
-      if (-1 == read(header, 0, 1)) {
+      long size = readHeader();
+      if (size < 0) {
          return null;
       }
-      // read the rest of the header
-      readFully(header, 1, 7);
-      // decode size as an unsigned int
-      long size = (long) (header[4] & 0xFF) << 24 | (header[5] & 0xFF) << 16 | (header[6] & 0xFF) << 8
-            | (header[7] & 0xFF);
-
-      byte[] payload;
+      byte streamTypeId = header[0];
       // The size from the header is an unsigned int so it can happen the byte
       // array has not a sufficient size and we'll have to truncate the frame
-      payload = new byte[(int) Math.min(Integer.MAX_VALUE, size)];
+      byte[] payload = new byte[(int) Math.min(Integer.MAX_VALUE, size)];
       readFully(payload);
       boolean truncated = false;
       if (size > Integer.MAX_VALUE) {
          truncated = true;
-         // skip the rest
-         readFully(new byte[(int) (size - Integer.MAX_VALUE)]);
+         skipFully(size - Integer.MAX_VALUE);
+      }
+      return new StdStreamData(streamTypeId, payload, truncated);
+   }
+
+   /**
+    * Reads the next frame and passes its payload to the sink, in pieces of at
+    * most {@link #BUFFER_SIZE} bytes. The frame is skipped if the sink does not
+    * accept its stream.
+    *
+    * @return <code>false</code> if we reached end of the stream.
+    * @throws IOException
+    *            if the stream could not be read or the sink failed
+    */
+   public boolean readFrame(StdStreamSink sink) throws IOException {
+      long size = readHeader();
+      if (size < 0) {
+         return false;
+      }
+      StdStreamType type = StdStreamType.fromId(header[0]);
+      if (!sink.accepts(type)) {
+         skipFully(size);
+         return true;
+      }
+      if (buffer == null) {
+         buffer = new byte[BUFFER_SIZE];
+      }
+      while (size > 0) {
+         int count = read(buffer, 0, (int) Math.min(buffer.length, size));
+         if (count < 0) {
+            throw new EOFException();
+         }
+         sink.write(type, buffer, 0, count);
+         size -= count;
+      }
+      return true;
+   }
+
+   /**
+    * Passes all the frames up to the end of the stream to the sink.
+    *
+    * @see #readFrame(StdStreamSink)
+    */
+   public void demultiplex(StdStreamSink sink) throws IOException {
+      while (readFrame(sink)) {
+         // next frame
+      }
+   }
+
+   /**
+    * Writes the standard output and the standard error up to the end of the
+    * stream to the given streams, which are neither flushed nor closed.
+    *
+    * @param stdout
+    *           destination of the standard output, or <code>null</code> to
+    *           skip it
+    * @param stderr
+    *           destination of the standard error, or <code>null</code> to
+    *           skip it
+    */
+   public void demultiplex(OutputStream stdout, OutputStream stderr) throws IOException {
+      demultiplex(StdStreamSinks.of(stdout, stderr));
+   }
+
+   /**
+    * Writes the standard output and the standard error up to the end of the
+    * stream to the given channels, which are not closed.
+    *
+    * @param stdout
+    *           destination of the standard output, or <code>null</code> to
+    *           skip it
+    * @param stderr
+    *           destination of the standard error, or <code>null</code> to
+    *           skip it
+    */
+   public void demultiplex(WritableByteChannel stdout, WritableByteChannel stderr) throws IOException {
+      demultiplex(StdStreamSinks.of(stdout, stderr));
+   }
+
+   /**
+    * Reads the header of the next frame into {@link #header}.
+    *
+    * @return the size of the frame payload, or -1 if we reached end of the
+    *         stream
+    */
+   private long readHeader() throws IOException {
+      // try to read first byte from the message header - just to check if we
+      // are at the end of stream
+      if (-1 == read(header, 0, 1)) {
+         return -1;
+      }
+      // read the rest of the header
+      readFully(header, 1, 7);
+      // decode size as an unsigned int
+      return (long) (header[4] & 0xFF) << 24 | (header[5] & 0xFF) << 16 | (header[6] & 0xFF) << 8
+            | (header[7] & 0xFF);
+   }
+
+   /**
+    * Skips bytes without reading them into memory, unless the underlying
+    * stream cannot skip.
+    */
+   private void skipFully(long n) throws IOException {
+      long remaining = n;
+      while (remaining > 0) {
+         long skipped = skip(remaining);
+         if (skipped <= 0) {
+            // skip() may return 0 before the end of the stream, read a byte to
+            // tell both cases apart
+            if (read() < 0) {
+               throw new EOFException();
+            }
+            skipped = 1;
+         }
+         remaining -= skipped;
       }
-      return new StdStreamData(header[0], payload, truncated);
    }
 
 }
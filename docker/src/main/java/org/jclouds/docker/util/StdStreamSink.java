@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.docker.util;
+
+import java.io.IOException;
+
+import org.jclouds.docker.util.StdStreamData.StdStreamType;
+
+/**
+ * Receives the payloads of a multiplexed docker stream demultiplexed by
+ * {@link DockerInputStream#demultiplex(StdStreamSink)}.
+ *
+ * @see StdStreamSinks
+ */
+public interface StdStreamSink {
+
+   /**
+    * @return false if the frames of the given stream are not wanted, in which
+    *         case they are skipped without being read into memory
+    */
+   boolean accepts(StdStreamType type);
+
+   /**
+    * Receives a piece of the payload of a frame. Frames larger than the buffer
+    * of the stream are delivered in several calls. The buffer is reused by the
+    * next call, so its content must be copied if it is kept.
+    *
+    * @param type
+    *           the stream the data belongs to
+    * @param buffer
+    *           buffer holding the data
+    * @param offset
+    *           offset of the data in the buffer
+    * @param length
+    *           number of bytes of data
+    * @throws IOException
+    *            if the data could not be written, which stops the
+    *            demultiplexing
+    */
+   void write(StdStreamType type, byte[] buffer, int offset, int length) throws IOException;
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.docker.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import org.jclouds.docker.util.StdStreamData.StdStreamType;
+
+/**
+ * Factory of {@link StdStreamSink}s writing the standard output and the
+ * standard error of a container to separate destinations. A <code>null</code>
+ * destination discards its stream. Standard input frames are always discarded.
+ */
+public final class StdStreamSinks {
+
+   private StdStreamSinks() {
+      throw new AssertionError("intentionally unimplemented");
+   }
+
+   /**
+    * @param stdout
+    *           destination of the standard output, or <code>null</code>
+    * @param stderr
+    *           destination of the standard error, or <code>null</code>
+    */
+   public static StdStreamSink of(final OutputStream stdout, final OutputStream stderr) {
+      return new StdStreamSink() {
+         @Override
+         public boolean accepts(StdStreamType type) {
+            return destination(type) != null;
+         }
+
+         @Override
+         public void write(StdStreamType type, byte[] buffer, int offset, int length) throws IOException {
+            destination(type).write(buffer, offset, length);
+         }
+
+         private OutputStream destination(StdStreamType type) {
+            return type == StdStreamType.OUT ? stdout : type == StdStreamType.ERR ? stderr : null;
+         }
+      };
+   }
+
+   /**
+    * @param stdout
+    *           destination of the standard output, or <code>null</code>
+    * @param stderr
+    *           destination of the standard error, or <code>null</code>
+    */
+   public static StdStreamSink of(final WritableByteChannel stdout, final WritableByteChannel stderr) {
+      return new StdStreamSink() {
+         // wraps the buffer of the stream once instead of on each write
+         private ByteBuffer wrapper;
+
+         @Override
+         public boolean accepts(StdStreamType type) {
+            return destination(type) != null;
+         }
+
+         @Override
+         public void write(StdStreamType type, byte[] buffer, int offset, int length) throws IOException {
+            if (wrapper == null || wrapper.array() != buffer) {
+               wrapper = ByteBuffer.wrap(buffer);
+            }
+            wrapper.limit(offset + length).position(offset);
+            WritableByteChannel channel = destination(type);
+            while (wrapper.hasRemaining()) {
+               channel.write(wrapper);
+            }
+         }
+
+         private WritableByteChannel destination(StdStreamType type) {
+            return type == StdStreamType.OUT ? stdout : type == StdStreamType.ERR ? stderr : null;
+         }
+      };
+   }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.docker.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+
+import javax.net.SocketFactory;
+
+import org.newsclub.net.unix.AFUNIXSocket;
+import org.newsclub.net.unix.AFUNIXSocketAddress;
+
+/**
+ * {@link SocketFactory} connecting every socket to the Unix domain socket of a
+ * local Docker daemon, usually <code>/var/run/docker.sock</code>. The host and
+ * port the http client asks for are ignored, so the endpoint can be any
+ * <code>http://</code> url resolving to a local address, such as
+ * <code>http://localhost</code>.
+ */
+public final class UnixDomainSocketFactory extends SocketFactory {
+
+   private final File path;
+
+   public UnixDomainSocketFactory(File path) {
+      this.path = checkNotNull(path, "path");
+   }
+
+   @Override
+   public Socket createSocket() throws IOException {
+      return new UnixDomainSocket(path);
+   }
+
+   @Override
+   public Socket createSocket(String host, int port) throws IOException {
+      return connected();
+   }
+
+   @Override
+   public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+      return connected();
+   }
+
+   @Override
+   public Socket createSocket(InetAddress host, int port) throws IOException {
+      return connected();
+   }
+
+   @Override
+   public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+         throws IOException {
+      return connected();
+   }
+
+   private Socket connected() throws IOException {
+      Socket socket = createSocket();
+      socket.connect(null);
+      return socket;
+   }
+
+   /**
+    * Socket accepting the tcp addresses the http client connects to, and
+    * delegating to a Unix domain socket once connected.
+    */
+   private static final class UnixDomainSocket extends Socket {
+
+      private final File path;
+      private AFUNIXSocket delegate;
+      private int soTimeout;
+      private boolean closed;
+
+      private UnixDomainSocket(File path) {
+         this.path = path;
+      }
+
+      @Override
+      public void connect(SocketAddress endpoint) throws IOException {
+         connect(endpoint, 0);
+      }
+
+      @Override
+      public synchronized void connect(SocketAddress endpoint, int timeout) throws IOException {
+         if (closed) {
+            throw new SocketException("Socket is closed");
+         }
+         AFUNIXSocket socket = AFUNIXSocket.newInstance();
+         socket.connect(new AFUNIXSocketAddress(path), timeout);
+         socket.setSoTimeout(soTimeout);
+         delegate = socket;
+      }
+
+      @Override
+      public InputStream getInputStream() throws IOException {
+         return connectedDelegate().getInputStream();
+      }
+
+      @Override
+      public OutputStream getOutputStream() throws IOException {
+         return connectedDelegate().getOutputStream();
+      }
+
+      @Override
+      public synchronized void setSoTimeout(int timeout) throws SocketException {
+         soTimeout = timeout;
+         if (delegate != null) {
+            delegate.setSoTimeout(timeout);
+         }
+      }
+
+      @Override
+      public synchronized int getSoTimeout() {
+         return soTimeout;
+      }
+
+      @Override
+      public void setTcpNoDelay(boolean on) {
+         // not applicable to unix domain sockets
+      }
+
+      @Override
+      public void setKeepAlive(boolean on) {
+         // not applicable to unix domain sockets
+      }
+
+      @Override
+      public InetAddress getInetAddress() {
+         return InetAddress.getLoopbackAddress();
+      }
+
+      @Override
+      public InetAddress getLocalAddress() {
+         return InetAddress.getLoopbackAddress();
+      }
+
+      @Override
+      public synchronized boolean isConnected() {
+         return delegate != null && delegate.isConnected();
+      }
+
+      @Override
+      public synchronized boolean isClosed() {
+         return closed;
+      }
+
+      @Override
+      public void shutdownInput() throws IOException {
+         connectedDelegate().shutdownInput();
+      }
+
+      @Override
+      public void shutdownOutput() throws IOException {
+         connectedDelegate().shutdownOutput();
+      }
+
+      @Override
+      public synchronized boolean isInputShutdown() {
+         return delegate != null && delegate.isInputShutdown();
+      }
+
+      @Override
+      public synchronized boolean isOutputShutdown() {
+         return delegate != null && delegate.isOutputShutdown();
+      }
+
+      @Override
+      public synchronized void close() throws IOException {
+         closed = true;
+         if (delegate != null) {
+            delegate.close();
+         }
+      }
+
+      private synchronized AFUNIXSocket connectedDelegate() throws SocketException {
+         if (delegate == null) {
+            throw new SocketException("Socket is not connected");
+         }
+         return delegate;
+      }
+
+      @Override
+      public String toString() {
+         return "UnixDomainSocket[" + path + "]";
+      }
+   }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.docker.compute;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.Executors;
+
+import org.jclouds.docker.DockerApi;
+import org.jclouds.docker.compute.strategy.BulkContainerOperations;
+import org.jclouds.docker.config.DockerParserModule;
+import org.jclouds.docker.domain.Container;
+import org.jclouds.docker.internal.BaseDockerMockTest;
+import org.jclouds.docker.parse.ContainerParseTest;
+import org.jclouds.rest.ResourceNotFoundException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Mock tests for the {@link org.jclouds.docker.compute.strategy.BulkContainerOperations} class.
+ */
+@Test(groups = "unit", testName = "BulkContainerOperationsMockTest")
+public class BulkContainerOperationsMockTest extends BaseDockerMockTest {
+
+   private final ListeningExecutorService userExecutor = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+
+   @AfterClass(alwaysRun = true)
+   public void shutdownExecutor() {
+      userExecutor.shutdownNow();
+   }
+
+   private BulkContainerOperations bulkOperations(MockWebServer server, int parallelism) {
+      DockerApi api = api(DockerApi.class, server.getUrl("/").toString(), new DockerParserModule());
+      return new BulkContainerOperations(api, userExecutor, parallelism);
+   }
+
+   public void testInspect() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody(payloadFromResource("/container.json")),
+            new MockResponse().setResponseCode(404));
+      // a single call in flight keeps the order of the mocked responses deterministic
+      BulkContainerOperations bulkOperations = bulkOperations(server, 1);
+      try {
+         BulkContainerOperations.Result<Container> result = bulkOperations.inspect(ImmutableList.of("running", "removed"));
+         assertThat(result.succeeded()).containsOnly("running");
+         assertThat(result.values().get("running")).isEqualTo(new ContainerParseTest().expected());
+         assertThat(result.failed().keySet()).containsOnly("removed");
+         assertThat(result.failed().get("removed")).isInstanceOf(ResourceNotFoundException.class);
+         assertSent(server, "GET", "/containers/running/json");
+         assertSent(server, "GET", "/containers/removed/json");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testRemoveReportsFailuresPerContainer() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setResponseCode(204),
+            new MockResponse().setResponseCode(404), new MockResponse().setResponseCode(204));
+      BulkContainerOperations bulkOperations = bulkOperations(server, 1);
+      try {
+         BulkContainerOperations.Result<Void> result = bulkOperations.remove(ImmutableList.of("a", "b", "c"));
+         assertThat(result.succeeded()).containsExactly("a", "c");
+         assertThat(result.values()).isEmpty();
+         assertThat(result.failed().keySet()).containsOnly("b");
+         assertSent(server, "DELETE", "/containers/a?force=true");
+         assertSent(server, "DELETE", "/containers/b?force=true");
+         assertSent(server, "DELETE", "/containers/c?force=true");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testRepeatedIdsAreOperatedOnOnce() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setResponseCode(204),
+            new MockResponse().setResponseCode(204));
+      BulkContainerOperations bulkOperations = bulkOperations(server, 1);
+      try {
+         BulkContainerOperations.Result<Void> result = bulkOperations.kill(ImmutableList.of("a", "b", "a"));
+         assertThat(result.succeeded()).containsExactly("a", "b");
+         assertThat(result.failed()).isEmpty();
+         assertSent(server, "POST", "/containers/a/kill");
+         assertSent(server, "POST", "/containers/b/kill");
+         assertThat(server.getRequestCount()).isEqualTo(2);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testStopInParallel() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setResponseCode(204),
+            new MockResponse().setResponseCode(204), new MockResponse().setResponseCode(204),
+            new MockResponse().setResponseCode(204));
+      BulkContainerOperations bulkOperations = bulkOperations(server, 4);
+      try {
+         BulkContainerOperations.Result<Void> result = bulkOperations.stop(ImmutableList.of("a", "b", "c", "d"));
+         assertThat(result.succeeded()).containsExactly("a", "b", "c", "d");
+         assertThat(result.failed()).isEmpty();
+         assertThat(server.getRequestCount()).isEqualTo(4);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testPauseAndUnpause() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setResponseCode(204),
+            new MockResponse().setResponseCode(204));
+      BulkContainerOperations bulkOperations = bulkOperations(server, 1);
+      try {
+         assertThat(bulkOperations.pause(ImmutableList.of("a")).succeeded()).containsExactly("a");
+         assertSent(server, "POST", "/containers/a/pause");
+         assertThat(bulkOperations.unpause(ImmutableList.of("a")).succeeded()).containsExactly("a");
+         assertSent(server, "POST", "/containers/a/unpause");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+}
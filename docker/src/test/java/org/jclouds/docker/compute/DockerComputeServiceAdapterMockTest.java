@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.docker.compute;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+
+import java.util.concurrent.Executors;
+
+import org.jclouds.docker.DockerApi;
+import org.jclouds.docker.compute.strategy.BulkContainerOperations;
+import org.jclouds.docker.compute.strategy.DockerComputeServiceAdapter;
+import org.jclouds.docker.config.DockerParserModule;
+import org.jclouds.docker.domain.Image;
+import org.jclouds.docker.internal.BaseDockerMockTest;
+import org.jclouds.docker.parse.ContainerParseTest;
+import org.jclouds.docker.parse.ImageParseTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Mock tests for the {@link org.jclouds.docker.compute.strategy.DockerComputeServiceAdapter} class.
+ */
+@Test(groups = "unit", testName = "DockerComputeServiceAdapterMockTest")
+public class DockerComputeServiceAdapterMockTest extends BaseDockerMockTest {
+
+   private final ListeningExecutorService userExecutor = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+
+   @AfterClass(alwaysRun = true)
+   public void shutdownExecutor() {
+      userExecutor.shutdownNow();
+   }
+
+   private DockerComputeServiceAdapter adapter(MockWebServer server) {
+      DockerApi api = api(DockerApi.class, server.getUrl("/").toString(), new DockerParserModule());
+      // a single inspect in flight keeps the order of the mocked responses deterministic
+      return new DockerComputeServiceAdapter(api, new BulkContainerOperations(api, userExecutor, 1), 1, 60);
+   }
+
+   public void testGetImageInspectsOnlyRequestedImage() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody(payloadFromResource("/image.json")),
+            new MockResponse().setBody(payloadFromResource("/images.json")));
+      DockerComputeServiceAdapter adapter = adapter(server);
+      try {
+         String imageId = "cbba6639a342646deed70d7ea6162fa2a0acea9300f911f4e014555fe37d3456";
+         Image image = adapter.getImage(imageId);
+         assertEquals(image, new ImageParseTest().expected());
+         assertSent(server, "GET", "/images/" + imageId + "/json");
+         assertSent(server, "GET", "/images/json");
+
+         // served from the cache
+         assertEquals(adapter.getImage(imageId), image);
+         assertEquals(server.getRequestCount(), 2);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testGetImageByNameIsNotCached() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody(payloadFromResource("/image.json")),
+            new MockResponse().setBody(payloadFromResource("/images.json")),
+            new MockResponse().setBody(payloadFromResource("/image.json")),
+            new MockResponse().setBody(payloadFromResource("/images.json")));
+      DockerComputeServiceAdapter adapter = adapter(server);
+      try {
+         Image image = adapter.getImage("busybox");
+         assertEquals(adapter.getImage("busybox"), image);
+         assertSent(server, "GET", "/images/busybox/json");
+         assertSent(server, "GET", "/images/json");
+         assertSent(server, "GET", "/images/busybox/json");
+         assertSent(server, "GET", "/images/json");
+
+         // cached under the immutable image id
+         assertEquals(adapter.getImage(image.id()), image);
+         assertEquals(server.getRequestCount(), 4);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testGetImageNotFound() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setResponseCode(404));
+      DockerComputeServiceAdapter adapter = adapter(server);
+      try {
+         assertThat(adapter.getImage("missing")).isNull();
+         assertSent(server, "GET", "/images/missing/json");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testListNodes() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody(payloadFromResource("/containers.json")),
+            new MockResponse().setBody(payloadFromResource("/container.json")));
+      DockerComputeServiceAdapter adapter = adapter(server);
+      try {
+         assertThat(adapter.listNodes()).containsOnly(new ContainerParseTest().expected());
+         assertSent(server, "GET", "/containers/json?all=true");
+         assertSent(server, "GET", "/containers/6d35806c1bd2b25cd92bba2d2c2c5169dc2156f53ab45c2b62d76e2d2fee14a9/json");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testListNodesByIdsSkipsRemovedContainers() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setResponseCode(404),
+            new MockResponse().setBody(payloadFromResource("/container.json")));
+      DockerComputeServiceAdapter adapter = adapter(server);
+      try {
+         assertThat(adapter.listNodesByIds(ImmutableList.of("removed", "running")))
+               .containsOnly(new ContainerParseTest().expected());
+         assertSent(server, "GET", "/containers/removed/json");
+         assertSent(server, "GET", "/containers/running/json");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testListNodesByIdsWithRepeatedIds() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody(payloadFromResource("/container.json")));
+      DockerComputeServiceAdapter adapter = adapter(server);
+      try {
+         assertThat(adapter.listNodesByIds(ImmutableList.of("running", "running")))
+               .containsOnly(new ContainerParseTest().expected());
+         assertSent(server, "GET", "/containers/running/json");
+         assertEquals(server.getRequestCount(), 1);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testNodeLifecycle() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody(payloadFromResource("/container.json")),
+            new MockResponse().setResponseCode(204), new MockResponse().setResponseCode(204),
+            new MockResponse().setResponseCode(204), new MockResponse().setResponseCode(204),
+            new MockResponse().setResponseCode(204), new MockResponse().setResponseCode(204));
+      DockerComputeServiceAdapter adapter = adapter(server);
+      try {
+         assertEquals(adapter.getNode("1"), new ContainerParseTest().expected());
+         assertSent(server, "GET", "/containers/1/json");
+         adapter.suspendNode("1");
+         assertSent(server, "POST", "/containers/1/pause");
+         adapter.resumeNode("1");
+         assertSent(server, "POST", "/containers/1/unpause");
+         adapter.rebootNode("1");
+         assertSent(server, "POST", "/containers/1/stop");
+         assertSent(server, "POST", "/containers/1/start");
+         adapter.destroyNode("1");
+         assertSent(server, "DELETE", "/containers/1?force=true");
+         assertThat(adapter.listLocations()).isEmpty();
+      } finally {
+         server.shutdown();
+      }
+   }
+
+}
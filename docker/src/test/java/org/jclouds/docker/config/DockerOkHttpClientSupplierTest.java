@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.docker.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.jclouds.docker.util.UnixDomainSocketFactory;
+import org.jclouds.domain.Credentials;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Suppliers;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Protocol;
+
+/**
+ * Unit tests for the {@link DockerOkHttpClientSupplier} class.
+ */
+@Test(groups = "unit", testName = "DockerOkHttpClientSupplierTest")
+public class DockerOkHttpClientSupplierTest {
+
+   private DockerOkHttpClientSupplier supplier(String unixSocketPath) {
+      // identity and credential are not files, so no ssl context is ever built
+      return new DockerOkHttpClientSupplier(null, Suppliers.ofInstance(new Credentials("identity", "credential")), 5,
+            1000, 2000, unixSocketPath);
+   }
+
+   public void testClientIsShared() {
+      DockerOkHttpClientSupplier supplier = supplier("");
+      OkHttpClient client = supplier.get();
+      assertThat(supplier.get()).isSameAs(client);
+      assertThat(client.getProtocols()).containsExactly(Protocol.HTTP_1_1);
+      assertThat(client.getConnectTimeout()).isEqualTo(1000);
+      assertThat(client.getReadTimeout()).isEqualTo(2000);
+      assertThat(client.getWriteTimeout()).isEqualTo(2000);
+   }
+
+   public void testUnixSocket() {
+      OkHttpClient client = supplier("/var/run/docker.sock").get();
+      assertThat(client.getSocketFactory()).isInstanceOf(UnixDomainSocketFactory.class);
+      assertThat(client.getSslSocketFactory()).isNull();
+   }
+
+}
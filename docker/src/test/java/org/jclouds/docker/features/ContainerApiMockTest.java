@@ -20,6 +20,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
 import org.jclouds.docker.DockerApi;
 import org.jclouds.docker.config.DockerParserModule;
 import org.jclouds.docker.domain.Config;
@@ -27,8 +30,10 @@ import org.jclouds.docker.domain.Container;
 import org.jclouds.docker.domain.Resource;
 import org.jclouds.docker.internal.BaseDockerMockTest;
 import org.jclouds.docker.options.ListContainerOptions;
+import org.jclouds.docker.options.LogsOptions;
 import org.jclouds.docker.parse.ContainerParseTest;
 import org.jclouds.docker.parse.ContainersParseTest;
+import org.jclouds.docker.util.DockerInputStream;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
@@ -189,6 +194,24 @@ public class ContainerApiMockTest extends BaseDockerMockTest {
       }
    }
 
+   public void testLogs() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody(payloadFromResource("/exec.start")));
+      ContainerApi api = api(DockerApi.class, server.getUrl("/").toString()).getContainerApi();
+      DockerInputStream logs = null;
+      try {
+         logs = new DockerInputStream(api.logs("1", LogsOptions.Builder.stdout(true).tail(10)));
+         ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+         logs.demultiplex(stdout, null);
+         assertEquals(stdout.toByteArray(), "Standard".getBytes(StandardCharsets.UTF_8));
+         assertSent(server, "GET", "/containers/1/logs?stdout=true&tail=10");
+      } finally {
+         if (logs != null) {
+            logs.close();
+         }
+         server.shutdown();
+      }
+   }
+
    public void testWaitContainer() throws Exception {
       MockWebServer server = mockWebServer(new MockResponse().setResponseCode(200));
       ContainerApi api = api(DockerApi.class, server.getUrl("/").toString()).getContainerApi();
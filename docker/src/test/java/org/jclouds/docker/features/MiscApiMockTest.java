@@ -23,6 +23,7 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -32,14 +33,17 @@ import javax.ws.rs.core.HttpHeaders;
 
 import org.jclouds.docker.DockerApi;
 import org.jclouds.docker.config.DockerParserModule;
+import org.jclouds.docker.domain.Event;
 import org.jclouds.docker.domain.Exec;
 import org.jclouds.docker.domain.ExecCreateParams;
 import org.jclouds.docker.domain.ExecInspect;
 import org.jclouds.docker.domain.ExecStartParams;
 import org.jclouds.docker.internal.BaseDockerMockTest;
+import org.jclouds.docker.options.EventsOptions;
 import org.jclouds.docker.parse.InfoParseTest;
 import org.jclouds.docker.parse.VersionParseTest;
 import org.jclouds.docker.util.DockerInputStream;
+import org.jclouds.docker.util.EventStream;
 import org.jclouds.docker.util.StdStreamData;
 import org.jclouds.docker.util.StdStreamData.StdStreamType;
 import org.jclouds.io.Payload;
@@ -153,6 +157,45 @@ public class MiscApiMockTest extends BaseDockerMockTest {
       }
    }
 
+   public void testExecStartDemultiplex() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody(payloadFromResource("/exec.start")));
+      MiscApi api = api(DockerApi.class, server.getUrl("/").toString(), new DockerParserModule()).getMiscApi();
+      DockerInputStream dis = null;
+      try {
+         final String execId = "dbf45d296388032ebb9872edb75847f6655a72b4e9ab0d99ae1c75589c4ca957";
+         final ExecStartParams startParams = ExecStartParams.builder().detach(false).build();
+         dis = new DockerInputStream(api.execStart(execId, startParams));
+         ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+         ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+         dis.demultiplex(stdout, stderr);
+         assertEquals(stdout.toByteArray(), "Standard".getBytes(StandardCharsets.UTF_8));
+         assertEquals(stderr.toByteArray(), "Error".getBytes(StandardCharsets.UTF_8));
+         assertSent(server, "POST", "/exec/" + execId + "/start");
+      } finally {
+         if (dis != null) {
+            dis.close();
+         }
+         server.shutdown();
+      }
+   }
+
+   public void testEvents() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody(payloadFromResource("/events.json")));
+      MiscApi api = api(DockerApi.class, server.getUrl("/").toString(), new DockerParserModule()).getMiscApi();
+      EventStream events = api.events(EventsOptions.Builder.since(1374067924).until(1374067970));
+      try {
+         assertEquals(ImmutableList.copyOf(events), ImmutableList.of(
+               Event.create("create", "dfdf82bd3881", "base:latest", 1374067924),
+               Event.create("start", "dfdf82bd3881", "base:latest", 1374067924),
+               Event.create("untag", "busybox:latest", null, 1374067970)));
+         assertSent(server, "GET", "/events?since=1374067924&until=1374067970");
+      } finally {
+         events.close();
+         server.shutdown();
+      }
+   }
+
    public void testExecInspect() throws IOException, InterruptedException {
       MockWebServer server = mockWebServer(new MockResponse().setBody(payloadFromResource("/execInspect.json")));
       MiscApi api = api(DockerApi.class, server.getUrl("/").toString(), new DockerParserModule()).getMiscApi();
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.docker.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.Ints;
+
+/**
+ * Unit tests for the {@link org.jclouds.docker.util.DockerInputStream} class.
+ */
+@Test(groups = "unit", testName = "DockerInputStreamTest")
+public class DockerInputStreamTest {
+
+   public void testDemultiplexToChannels() throws IOException {
+      byte[] big = new byte[3 * DockerInputStream.BUFFER_SIZE + 5];
+      Arrays.fill(big, (byte) 'x');
+      InputStream in = frames(frame(1, "out1".getBytes(StandardCharsets.UTF_8)), frame(2, big),
+            frame(0, "in".getBytes(StandardCharsets.UTF_8)), frame(1, "out2".getBytes(StandardCharsets.UTF_8)));
+      ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+      ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+      DockerInputStream dis = new DockerInputStream(in);
+      dis.demultiplex(Channels.newChannel(stdout), Channels.newChannel(stderr));
+      assertEquals(stdout.toByteArray(), "out1out2".getBytes(StandardCharsets.UTF_8));
+      assertEquals(stderr.toByteArray(), big);
+      dis.close();
+   }
+
+   public void testUnwantedFramesAreSkipped() throws IOException {
+      // an unwanted stderr frame announcing 1 GiB, which is never read into memory
+      byte[] hugeHeader = header(2, 1 << 30);
+      byte[] lastFrame = ByteStreams.toByteArray(frame(1, "done".getBytes(StandardCharsets.UTF_8)));
+      SkippableStream in = new SkippableStream(hugeHeader, 1 << 30, lastFrame);
+      ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+      DockerInputStream dis = new DockerInputStream(in);
+      assertTrue(dis.readFrame(StdStreamSinks.of(stdout, null)));
+      assertEquals(in.bytesRead, hugeHeader.length);
+      assertTrue(dis.readFrame(StdStreamSinks.of(stdout, null)));
+      assertFalse(dis.readFrame(StdStreamSinks.of(stdout, null)));
+      assertEquals(stdout.toByteArray(), "done".getBytes(StandardCharsets.UTF_8));
+      dis.close();
+   }
+
+   private static InputStream frames(InputStream... frames) {
+      InputStream result = new ByteArrayInputStream(new byte[0]);
+      for (InputStream frame : frames) {
+         result = new SequenceInputStream(result, frame);
+      }
+      return result;
+   }
+
+   private static InputStream frame(int type, byte[] payload) {
+      return new SequenceInputStream(new ByteArrayInputStream(header(type, payload.length)),
+            new ByteArrayInputStream(payload));
+   }
+
+   private static byte[] header(int type, int size) {
+      byte[] header = new byte[8];
+      header[0] = (byte) type;
+      System.arraycopy(Ints.toByteArray(size), 0, header, 4, 4);
+      return header;
+   }
+
+   /**
+    * Stream made of a prefix, a given number of zeros that can be skipped, and
+    * a suffix. Counts the bytes actually read.
+    */
+   private static final class SkippableStream extends InputStream {
+      private final byte[] prefix;
+      private final byte[] suffix;
+      private long zeros;
+      private int position;
+      private long bytesRead;
+
+      SkippableStream(byte[] prefix, long zeros, byte[] suffix) {
+         this.prefix = prefix;
+         this.zeros = zeros;
+         this.suffix = suffix;
+      }
+
+      @Override
+      public int read() {
+         int b;
+         if (position < prefix.length) {
+            b = prefix[position++] & 0xFF;
+         } else if (zeros > 0) {
+            zeros--;
+            b = 0;
+         } else if (position - prefix.length < suffix.length) {
+            b = suffix[position++ - prefix.length] & 0xFF;
+         } else {
+            return -1;
+         }
+         bytesRead++;
+         return b;
+      }
+
+      @Override
+      public long skip(long n) {
+         if (position < prefix.length || zeros == 0) {
+            return 0;
+         }
+         long skipped = Math.min(n, zeros);
+         zeros -= skipped;
+         return skipped;
+      }
+   }
+
+}
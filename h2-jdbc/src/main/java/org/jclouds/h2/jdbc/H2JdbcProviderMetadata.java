@@ -16,8 +16,12 @@
  */
 package org.jclouds.h2.jdbc;
 
+import java.util.Properties;
+
 import org.jclouds.h2.jdbc.config.H2JdbcBlobStoreContextModule;
+import org.jclouds.h2.jdbc.reference.H2JdbcConstants;
 import org.jclouds.jdbc.JdbcApiMetadata;
+import org.jclouds.jdbc.reference.JdbcConstants;
 import org.jclouds.providers.ProviderMetadata;
 import org.jclouds.providers.internal.BaseProviderMetadata;
 
@@ -43,6 +47,24 @@ public class H2JdbcProviderMetadata extends BaseProviderMetadata {
       super(builder);
    }
 
+   public static Properties defaultProperties() {
+      Properties properties = JdbcApiMetadata.defaultProperties();
+      properties.setProperty(H2JdbcConstants.PROPERTY_FILE, H2JdbcConstants.DEFAULT_FILE);
+      properties.setProperty(H2JdbcConstants.PROPERTY_CACHE_SIZE, String.valueOf(H2JdbcConstants.DEFAULT_CACHE_SIZE));
+      properties.setProperty(H2JdbcConstants.PROPERTY_LOB_TIMEOUT,
+            String.valueOf(H2JdbcConstants.DEFAULT_LOB_TIMEOUT));
+      properties.setProperty(H2JdbcConstants.PROPERTY_POOL_MIN_SIZE,
+            String.valueOf(H2JdbcConstants.DEFAULT_POOL_MIN_SIZE));
+      properties.setProperty(H2JdbcConstants.PROPERTY_POOL_MAX_SIZE,
+            String.valueOf(H2JdbcConstants.DEFAULT_POOL_MAX_SIZE));
+      properties.setProperty(H2JdbcConstants.PROPERTY_STATEMENT_CACHE_SIZE,
+            String.valueOf(H2JdbcConstants.DEFAULT_STATEMENT_CACHE_SIZE));
+      properties.setProperty(H2JdbcConstants.PROPERTY_FETCH_SIZE, String.valueOf(H2JdbcConstants.DEFAULT_FETCH_SIZE));
+      properties.setProperty(H2JdbcConstants.PROPERTY_BATCH_SIZE, String.valueOf(JdbcConstants.CHUNK_BATCH_SIZE));
+      properties.setProperty(H2JdbcConstants.PROPERTY_SCHEMA, H2JdbcConstants.DEFAULT_SCHEMA);
+      return properties;
+   }
+
    public static class Builder extends BaseProviderMetadata.Builder {
       protected Builder() {
          id("h2-jdbc")
@@ -50,7 +72,8 @@ public class H2JdbcProviderMetadata extends BaseProviderMetadata {
                .apiMetadata(new JdbcApiMetadata()
                      .toBuilder()
                      .defaultModule(H2JdbcBlobStoreContextModule.class)
-                     .build());
+                     .build())
+               .defaultProperties(H2JdbcProviderMetadata.defaultProperties());
       }
 
       @Override
@@ -24,13 +24,13 @@ import com.google.inject.persist.jpa.JpaPersistModule;
 
 public class H2JdbcBlobStoreContextModule extends JdbcBlobStoreContextModule {
 
-   private static final String DEFAULT_FILE = "./jclouds-db";
-
    protected void configure() {
       super.configure();
 
+      // The properties are filled from the provider properties when the injector is created, which happens
+      // before the eager JPAInitializer starts the persistence service
       Properties properties = new Properties();
-      properties.setProperty("hibernate.connection.url", "jdbc:h2:" + DEFAULT_FILE);
+      requestInjection(new H2PersistenceProperties(properties));
 
       install(new JpaPersistModule("jclouds-h2").properties(properties));
    }
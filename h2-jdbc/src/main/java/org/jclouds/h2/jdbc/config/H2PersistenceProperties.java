@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.h2.jdbc.config;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Properties;
+
+import javax.inject.Named;
+import javax.sql.DataSource;
+
+import org.jclouds.h2.jdbc.reference.H2JdbcConstants;
+import org.jclouds.jdbc.reference.JdbcConstants;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Inject;
+
+/**
+ * Fills the persistence unit properties from the provider properties. When a {@link DataSource} is bound, connections
+ * are taken from it; otherwise they come from a c3p0 pool sized by the provider properties.
+ */
+public class H2PersistenceProperties {
+
+   private static final String C3P0_CONNECTION_PROVIDER = "org.hibernate.c3p0.internal.C3P0ConnectionProvider";
+
+   private static final ImmutableSet<String> SCHEMA_MODES = ImmutableSet.of("create", "update", "validate");
+
+   private final Properties properties;
+
+   @Inject(optional = true)
+   private DataSource dataSource;
+
+   @Inject(optional = true)
+   @Named(H2JdbcConstants.PROPERTY_FILE)
+   private String file = H2JdbcConstants.DEFAULT_FILE;
+
+   @Inject(optional = true)
+   @Named(H2JdbcConstants.PROPERTY_CACHE_SIZE)
+   private int cacheSize = H2JdbcConstants.DEFAULT_CACHE_SIZE;
+
+   @Inject(optional = true)
+   @Named(H2JdbcConstants.PROPERTY_LOB_TIMEOUT)
+   private int lobTimeout = H2JdbcConstants.DEFAULT_LOB_TIMEOUT;
+
+   @Inject(optional = true)
+   @Named(H2JdbcConstants.PROPERTY_POOL_MIN_SIZE)
+   private int poolMinSize = H2JdbcConstants.DEFAULT_POOL_MIN_SIZE;
+
+   @Inject(optional = true)
+   @Named(H2JdbcConstants.PROPERTY_POOL_MAX_SIZE)
+   private int poolMaxSize = H2JdbcConstants.DEFAULT_POOL_MAX_SIZE;
+
+   @Inject(optional = true)
+   @Named(H2JdbcConstants.PROPERTY_STATEMENT_CACHE_SIZE)
+   private int statementCacheSize = H2JdbcConstants.DEFAULT_STATEMENT_CACHE_SIZE;
+
+   @Inject(optional = true)
+   @Named(H2JdbcConstants.PROPERTY_FETCH_SIZE)
+   private int fetchSize = H2JdbcConstants.DEFAULT_FETCH_SIZE;
+
+   @Inject(optional = true)
+   @Named(H2JdbcConstants.PROPERTY_BATCH_SIZE)
+   private int batchSize = JdbcConstants.CHUNK_BATCH_SIZE;
+
+   @Inject(optional = true)
+   @Named(H2JdbcConstants.PROPERTY_SCHEMA)
+   private String schema = H2JdbcConstants.DEFAULT_SCHEMA;
+
+   /**
+    * @param properties the properties given to the persistence unit, filled once this object has been injected
+    */
+   H2PersistenceProperties(Properties properties) {
+      this.properties = properties;
+   }
+
+   @Inject
+   void fill() {
+      checkArgument(SCHEMA_MODES.contains(schema), "%s must be one of %s", H2JdbcConstants.PROPERTY_SCHEMA,
+            SCHEMA_MODES);
+      checkArgument(poolMinSize >= 0 && poolMinSize <= poolMaxSize, "invalid connection pool size %s-%s",
+            poolMinSize, poolMaxSize);
+      properties.setProperty("hibernate.hbm2ddl.auto", schema);
+      properties.setProperty("hibernate.jdbc.fetch_size", String.valueOf(fetchSize));
+      properties.setProperty("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+      if (dataSource != null) {
+         properties.put("hibernate.connection.datasource", dataSource);
+         return;
+      }
+      properties.setProperty("hibernate.connection.url", "jdbc:h2:" + file + ";CACHE_SIZE=" + cacheSize
+            + ";LOB_TIMEOUT=" + lobTimeout);
+      properties.setProperty("hibernate.connection.provider_class", C3P0_CONNECTION_PROVIDER);
+      properties.setProperty("hibernate.c3p0.min_size", String.valueOf(poolMinSize));
+      properties.setProperty("hibernate.c3p0.max_size", String.valueOf(poolMaxSize));
+      properties.setProperty("hibernate.c3p0.max_statements", String.valueOf(statementCacheSize));
+   }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.h2.jdbc.reference;
+
+/**
+ * Properties of the h2-jdbc provider, configuring the database file, the connection pool and the schema handling.
+ */
+public final class H2JdbcConstants {
+
+    public static final String DEFAULT_FILE = "./jclouds-db";
+
+    public static final int DEFAULT_CACHE_SIZE = 64 * 1024;
+
+    public static final int DEFAULT_LOB_TIMEOUT = 300000;
+
+    public static final int DEFAULT_POOL_MIN_SIZE = 1;
+
+    public static final int DEFAULT_POOL_MAX_SIZE = 16;
+
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 200;
+
+    public static final int DEFAULT_FETCH_SIZE = 100;
+
+    public static final String DEFAULT_SCHEMA = "create";
+
+    /**
+     * Path of the database file, without its extension. Defaults to {@link #DEFAULT_FILE}.
+     */
+    public static final String PROPERTY_FILE = "jclouds.h2-jdbc.file";
+
+    /**
+     * Size of the H2 page cache in KiB. Defaults to {@link #DEFAULT_CACHE_SIZE}.
+     */
+    public static final String PROPERTY_CACHE_SIZE = "jclouds.h2-jdbc.cache-size";
+
+    /**
+     * Milliseconds after which H2 deletes the temporary copies of the chunks read by a transaction that was not
+     * closed. Defaults to {@link #DEFAULT_LOB_TIMEOUT}.
+     */
+    public static final String PROPERTY_LOB_TIMEOUT = "jclouds.h2-jdbc.lob-timeout";
+
+    /**
+     * Minimum number of pooled connections. Defaults to {@link #DEFAULT_POOL_MIN_SIZE}.
+     */
+    public static final String PROPERTY_POOL_MIN_SIZE = "jclouds.h2-jdbc.pool.min-size";
+
+    /**
+     * Maximum number of pooled connections, which bounds the number of concurrent transactions. Defaults to
+     * {@link #DEFAULT_POOL_MAX_SIZE}.
+     */
+    public static final String PROPERTY_POOL_MAX_SIZE = "jclouds.h2-jdbc.pool.max-size";
+
+    /**
+     * Number of prepared statements cached by the pool, shared by all the connections. Zero disables the cache.
+     * Defaults to {@link #DEFAULT_STATEMENT_CACHE_SIZE}.
+     */
+    public static final String PROPERTY_STATEMENT_CACHE_SIZE = "jclouds.h2-jdbc.pool.statement-cache-size";
+
+    /**
+     * Number of rows fetched by each round trip of a query. Defaults to {@link #DEFAULT_FETCH_SIZE}.
+     */
+    public static final String PROPERTY_FETCH_SIZE = "jclouds.h2-jdbc.fetch-size";
+
+    /**
+     * Number of statements sent to the database in one batch. Defaults to
+     * {@link org.jclouds.jdbc.reference.JdbcConstants#CHUNK_BATCH_SIZE}.
+     */
+    public static final String PROPERTY_BATCH_SIZE = "jclouds.h2-jdbc.batch-size";
+
+    /**
+     * How the schema is handled when the provider starts: {@code create} drops and creates it, {@code update}
+     * creates the missing tables and columns, and {@code validate} only checks that it matches the entities.
+     * Defaults to {@link #DEFAULT_SCHEMA}.
+     */
+    public static final String PROPERTY_SCHEMA = "jclouds.h2-jdbc.schema";
+
+    private H2JdbcConstants() {
+        throw new AssertionError("Intentionally Unimplemented");
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.h2.jdbc.benchmarks;
+
+import static org.jclouds.utils.TestUtils.randomByteSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.domain.Blob;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Opens an h2-jdbc blob store with an empty container for each trial. The database is created in the working
+ * directory of the benchmark, and its tables are recreated when the context starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public abstract class BaseBlobStoreBenchmark {
+
+   protected static final String CONTAINER_NAME = "jclouds-benchmark";
+
+   protected BlobStoreContext context;
+   protected BlobStore blobStore;
+
+   @Setup(Level.Trial)
+   public void setUpContext() throws IOException {
+      context = ContextBuilder.newBuilder("h2-jdbc").overrides(overrides()).buildView(BlobStoreContext.class);
+      blobStore = context.getBlobStore();
+      blobStore.createContainerInLocation(null, CONTAINER_NAME);
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDownContext() {
+      blobStore.deleteContainer(CONTAINER_NAME);
+      context.close();
+   }
+
+   /**
+    * Properties overriding the provider defaults for this benchmark.
+    */
+   protected Properties overrides() {
+      return new Properties();
+   }
+
+   protected Blob randomBlob(String name, long size) {
+      return blobStore.blobBuilder(name).payload(randomByteSource().slice(0, size)).contentLength(size).build();
+   }
+
+   /**
+    * Reads a blob to the end, so the benchmark measures the chunk reads and not only the metadata lookup.
+    *
+    * @return the number of bytes read
+    */
+   protected long readBlob(String name) throws IOException {
+      InputStream in = blobStore.getBlob(CONTAINER_NAME, name).getPayload().openStream();
+      try {
+         return ByteStreams.copy(in, ByteStreams.nullOutputStream());
+      } finally {
+         in.close();
+      }
+   }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.h2.jdbc.benchmarks;
+
+import java.util.Properties;
+
+import org.jclouds.jdbc.reference.JdbcConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Clears a container holding blobs of two chunks. The container is filled again before each invocation, which is
+ * not measured; small chunks keep that refill cheap next to the measured clear.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ClearContainerBenchmark extends BaseBlobStoreBenchmark {
+
+   @Param({ "1000" })
+   public int blobs;
+
+   private static final int CHUNK_SIZE = 1024;
+
+   @Override
+   protected Properties overrides() {
+      Properties overrides = super.overrides();
+      overrides.setProperty(JdbcConstants.PROPERTY_CHUNK_SIZE, String.valueOf(CHUNK_SIZE));
+      return overrides;
+   }
+
+   @Setup(Level.Invocation)
+   public void fillContainer() {
+      for (int i = 0; i < blobs; i++) {
+         blobStore.putBlob(CONTAINER_NAME, randomBlob("blob" + i, 2 * CHUNK_SIZE));
+      }
+   }
+
+   @Benchmark
+   public void clearContainer() {
+      blobStore.clearContainer(CONTAINER_NAME);
+   }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.h2.jdbc.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.blobstore.domain.Blob;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Readers and writers working on the same container at the same time. Readers fetch a set of existing blobs while
+ * writers keep overwriting another one.
+ */
+public class ConcurrentReadWriteBenchmark extends BaseBlobStoreBenchmark {
+
+   private static final int READ_BLOBS = 16;
+
+   @Param({ "1048576" })
+   public long size;
+
+   private Blob written;
+   private final AtomicInteger next = new AtomicInteger();
+
+   @Setup(Level.Trial)
+   public void setUpBlobs() {
+      for (int i = 0; i < READ_BLOBS; i++) {
+         blobStore.putBlob(CONTAINER_NAME, randomBlob("read" + i, size));
+      }
+      written = randomBlob("written", size);
+   }
+
+   @Benchmark
+   @Group("readWrite")
+   @GroupThreads(4)
+   public long reader() throws IOException {
+      return readBlob("read" + (next.getAndIncrement() & (READ_BLOBS - 1)));
+   }
+
+   @Benchmark
+   @Group("readWrite")
+   @GroupThreads(2)
+   public String writer() {
+      return blobStore.putBlob(CONTAINER_NAME, written);
+   }
+
+}
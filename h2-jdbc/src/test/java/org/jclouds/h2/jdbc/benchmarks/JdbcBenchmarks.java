@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.h2.jdbc.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the h2-jdbc benchmarks and writes their results as JSON, so they can be compared across commits.
+ * <p>
+ * Arguments: the result file, {@code jmh-result.json} by default, and a regular expression selecting the
+ * benchmarks to run, all of them by default.
+ */
+public final class JdbcBenchmarks {
+
+   public static void main(String[] args) throws RunnerException {
+      String resultFile = args.length > 0 ? args[0] : "jmh-result.json";
+      String include = args.length > 1 ? args[1] : ".*";
+      Options options = new OptionsBuilder()
+            .include(JdbcBenchmarks.class.getPackage().getName() + "\\..*" + include)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile)
+            .build();
+      new Runner(options).run();
+   }
+
+   private JdbcBenchmarks() {
+      throw new AssertionError("Intentionally Unimplemented");
+   }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.h2.jdbc.benchmarks;
+
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.afterMarker;
+
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.jdbc.strategy.JdbcStorageStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Lists containers of 10k and 100k keys, page by page and as a stream of keys.
+ */
+public class ListBenchmark extends BaseBlobStoreBenchmark {
+
+   @Param({ "10000", "100000" })
+   public int keys;
+
+   private JdbcStorageStrategy storageStrategy;
+
+   @Setup(Level.Trial)
+   public void setUpKeys() {
+      storageStrategy = context.utils().injector().getInstance(JdbcStorageStrategy.class);
+      for (int i = 0; i < keys; i++) {
+         blobStore.putBlob(CONTAINER_NAME, randomBlob(String.format("dir%02d/blob%07d", i % 100, i), 16));
+      }
+   }
+
+   @Benchmark
+   public int listPages() {
+      int count = 0;
+      ListContainerOptions options = ListContainerOptions.Builder.recursive();
+      PageSet<? extends StorageMetadata> page;
+      do {
+         page = storageStrategy.list(CONTAINER_NAME, options);
+         count += page.size();
+         options = afterMarker(page.getNextMarker()).recursive();
+      } while (page.getNextMarker() != null);
+      return count;
+   }
+
+   @Benchmark
+   public int listDirectories() {
+      return storageStrategy.list(CONTAINER_NAME, ListContainerOptions.NONE).size();
+   }
+
+   @Benchmark
+   public int iterateKeys() throws Exception {
+      int count = 0;
+      for (String key : storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME)) {
+         count++;
+      }
+      return count;
+   }
+
+   @Benchmark
+   public long countBlobs() {
+      return blobStore.countBlobs(CONTAINER_NAME);
+   }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.h2.jdbc.benchmarks;
+
+import java.io.IOException;
+
+import org.jclouds.blobstore.domain.Blob;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Stores and reads back blobs of 1 KB, 1 MB and 100 MB.
+ */
+public class PutGetBenchmark extends BaseBlobStoreBenchmark {
+
+   @Param({ "1024", "1048576", "104857600" })
+   public long size;
+
+   private Blob blob;
+
+   @Setup(Level.Trial)
+   public void setUpBlob() throws IOException {
+      blob = randomBlob("blob", size);
+      blobStore.putBlob(CONTAINER_NAME, blob);
+   }
+
+   @Benchmark
+   public String putBlob() {
+      return blobStore.putBlob(CONTAINER_NAME, blob);
+   }
+
+   @Benchmark
+   public long getBlob() throws IOException {
+      return readBlob("blob");
+   }
+
+}
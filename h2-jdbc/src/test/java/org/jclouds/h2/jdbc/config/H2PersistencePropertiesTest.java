@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.h2.jdbc.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.easymock.EasyMock.createMock;
+
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.jclouds.h2.jdbc.H2JdbcProviderMetadata;
+import org.jclouds.h2.jdbc.reference.H2JdbcConstants;
+import org.testng.annotations.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.CreationException;
+import com.google.inject.Guice;
+import com.google.inject.name.Names;
+
+@Test(groups = "unit", testName = "H2PersistencePropertiesTest")
+public class H2PersistencePropertiesTest {
+
+   public void testPooledConnections() {
+      Properties overrides = H2JdbcProviderMetadata.defaultProperties();
+      overrides.setProperty(H2JdbcConstants.PROPERTY_FILE, "/tmp/blobs");
+      overrides.setProperty(H2JdbcConstants.PROPERTY_POOL_MAX_SIZE, "32");
+      overrides.setProperty(H2JdbcConstants.PROPERTY_SCHEMA, "validate");
+
+      Properties properties = fill(overrides, null);
+      assertThat(properties.getProperty("hibernate.connection.url"))
+            .isEqualTo("jdbc:h2:/tmp/blobs;CACHE_SIZE=65536;LOB_TIMEOUT=300000");
+      assertThat(properties.getProperty("hibernate.c3p0.min_size")).isEqualTo("1");
+      assertThat(properties.getProperty("hibernate.c3p0.max_size")).isEqualTo("32");
+      assertThat(properties.getProperty("hibernate.c3p0.max_statements")).isEqualTo("200");
+      assertThat(properties.getProperty("hibernate.jdbc.fetch_size")).isEqualTo("100");
+      assertThat(properties.getProperty("hibernate.jdbc.batch_size")).isEqualTo("16");
+      assertThat(properties.getProperty("hibernate.hbm2ddl.auto")).isEqualTo("validate");
+   }
+
+   public void testBoundDataSource() {
+      DataSource dataSource = createMock(DataSource.class);
+      Properties properties = fill(H2JdbcProviderMetadata.defaultProperties(), dataSource);
+      assertThat(properties.get("hibernate.connection.datasource")).isSameAs(dataSource);
+      assertThat(properties).doesNotContainKey("hibernate.connection.url");
+      assertThat(properties).doesNotContainKey("hibernate.c3p0.max_size");
+   }
+
+   @Test(expectedExceptions = CreationException.class)
+   public void testInvalidSchemaMode() {
+      Properties overrides = H2JdbcProviderMetadata.defaultProperties();
+      overrides.setProperty(H2JdbcConstants.PROPERTY_SCHEMA, "drop");
+      fill(overrides, null);
+   }
+
+   private static Properties fill(final Properties overrides, final DataSource dataSource) {
+      final Properties properties = new Properties();
+      Guice.createInjector(new AbstractModule() {
+         @Override
+         protected void configure() {
+            Names.bindProperties(binder(), overrides);
+            if (dataSource != null) {
+               bind(DataSource.class).toInstance(dataSource);
+            }
+            requestInjection(new H2PersistenceProperties(properties));
+         }
+      });
+      return properties;
+   }
+
+}
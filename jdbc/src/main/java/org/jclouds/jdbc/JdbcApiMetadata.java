@@ -23,8 +23,10 @@ import org.jclouds.apis.ApiMetadata;
 import org.jclouds.apis.internal.BaseApiMetadata;
 import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.jdbc.config.JdbcBlobStoreContextModule;
+import org.jclouds.jdbc.reference.JdbcConstants;
 
 import java.net.URI;
+import java.util.Properties;
 
 /**
  * Implementation of {@link ApiMetadata} for jclouds Jdbc BlobStore
@@ -45,6 +47,30 @@ public class JdbcApiMetadata extends BaseApiMetadata {
       super(builder);
    }
 
+   public static Properties defaultProperties() {
+      Properties properties = BaseApiMetadata.defaultProperties();
+      properties.setProperty(JdbcConstants.PROPERTY_READ_AHEAD, "false");
+      properties.setProperty(JdbcConstants.PROPERTY_CHUNK_SIZE, String.valueOf(JdbcConstants.DEFAULT_CHUNK_SIZE));
+      properties.setProperty(JdbcConstants.PROPERTY_INLINE_THRESHOLD,
+            String.valueOf(JdbcConstants.DEFAULT_INLINE_THRESHOLD));
+      properties.setProperty(JdbcConstants.PROPERTY_DEDUPLICATION, "false");
+      properties.setProperty(JdbcConstants.PROPERTY_COMPRESSION, "false");
+      properties.setProperty(JdbcConstants.PROPERTY_RECLAIM_DELAY,
+            String.valueOf(JdbcConstants.DEFAULT_RECLAIM_DELAY_SECONDS));
+      properties.setProperty(JdbcConstants.PROPERTY_SLOW_OPERATION_THRESHOLD, "0");
+      properties.setProperty(JdbcConstants.PROPERTY_JMX, "true");
+      properties.setProperty(JdbcConstants.PROPERTY_BLOB_CACHE_SIZE, "0");
+      properties.setProperty(JdbcConstants.PROPERTY_BLOB_CACHE_MAX_BLOB_SIZE,
+            String.valueOf(JdbcConstants.DEFAULT_BLOB_CACHE_MAX_BLOB_SIZE));
+      properties.setProperty(JdbcConstants.PROPERTY_BLOB_CACHE_EXPIRY,
+            String.valueOf(JdbcConstants.DEFAULT_BLOB_CACHE_EXPIRY_SECONDS));
+      properties.setProperty(JdbcConstants.PROPERTY_ASYNC_THREADS,
+            String.valueOf(JdbcConstants.DEFAULT_ASYNC_THREADS));
+      properties.setProperty(JdbcConstants.PROPERTY_ASYNC_QUEUE_SIZE,
+            String.valueOf(JdbcConstants.DEFAULT_ASYNC_QUEUE_SIZE));
+      return properties;
+   }
+
    public static class Builder extends BaseApiMetadata.Builder<Builder> {
 
       protected Builder() {
@@ -57,6 +83,7 @@ public class JdbcApiMetadata extends BaseApiMetadata {
          .defaultCredential("unused")
          .version("1")
          .documentation(URI.create("http://www.jclouds.org/documentation/userguide/blobstore-guide"))
+         .defaultProperties(JdbcApiMetadata.defaultProperties())
          .view(BlobStoreContext.class)
          .defaultModules(ImmutableSet.<Class<? extends Module>>of(JdbcBlobStoreContextModule.class));
       }
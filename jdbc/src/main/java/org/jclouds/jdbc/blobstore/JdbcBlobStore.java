@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.blobstore;
+
+import javax.inject.Inject;
+
+import org.jclouds.blobstore.config.LocalBlobStore;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.util.ForwardingBlobStore;
+import org.jclouds.jdbc.strategy.JdbcStorageStrategy;
+
+/**
+ * The jdbc {@link org.jclouds.blobstore.BlobStore}. It is the {@link LocalBlobStore}, except that container listings
+ * are read from the blob columns by {@link JdbcStorageStrategy#list} instead of loading every blob of the container.
+ */
+public class JdbcBlobStore extends ForwardingBlobStore {
+
+   private final JdbcStorageStrategy storageStrategy;
+
+   @Inject
+   JdbcBlobStore(LocalBlobStore localBlobStore, JdbcStorageStrategy storageStrategy) {
+      super(localBlobStore);
+      this.storageStrategy = storageStrategy;
+   }
+
+   @Override
+   public PageSet<? extends StorageMetadata> list(String container) {
+      return list(container, ListContainerOptions.NONE);
+   }
+
+   /**
+    * Lists a container. Detailed listings need the user metadata of the blobs, which is not part of the projection,
+    * so they are still served by the {@link LocalBlobStore}.
+    */
+   @Override
+   public PageSet<? extends StorageMetadata> list(String container, ListContainerOptions options) {
+      if (options.isDetailed()) {
+         return delegate().list(container, options);
+      }
+      return storageStrategy.list(container, options);
+   }
+
+}
@@ -17,14 +17,20 @@
 package org.jclouds.jdbc.config;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.persist.Transactional;
 import org.jclouds.blobstore.BlobRequestSigner;
 import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.LocalBlobRequestSigner;
 import org.jclouds.blobstore.LocalStorageStrategy;
 import org.jclouds.blobstore.attr.ConsistencyModel;
 import org.jclouds.blobstore.config.BlobStoreObjectModule;
-import org.jclouds.blobstore.config.LocalBlobStore;
 import org.jclouds.blobstore.util.BlobUtils;
+import org.jclouds.jdbc.blobstore.JdbcBlobStore;
+import org.jclouds.jdbc.metrics.JdbcMetricsExporter;
+import org.jclouds.jdbc.metrics.TransactionTimer;
+import org.jclouds.jdbc.service.JdbcService;
+import org.jclouds.jdbc.service.PayloadReclaimer;
 import org.jclouds.jdbc.strategy.JdbcStorageStrategy;
 import org.jclouds.jdbc.util.JdbcBlobUtils;
 
@@ -33,12 +39,20 @@ public class JdbcBlobStoreContextModule extends AbstractModule {
    @Override
    protected void configure() {
       bind(JPAInitializer.class).asEagerSingleton();
-      bind(BlobStore.class).to(LocalBlobStore.class);
+      bind(BlobStore.class).to(JdbcBlobStore.class);
       install(new BlobStoreObjectModule());
       bind(ConsistencyModel.class).toInstance(ConsistencyModel.STRICT);
       bind(LocalStorageStrategy.class).to(JdbcStorageStrategy.class);
       bind(BlobUtils.class).to(JdbcBlobUtils.class);
       bind(BlobRequestSigner.class).to(LocalBlobRequestSigner.class);
+
+      // bound before the persistence module, so the commit is part of the recorded time
+      TransactionTimer transactionTimer = new TransactionTimer();
+      requestInjection(transactionTimer);
+      bindInterceptor(Matchers.subclassesOf(JdbcService.class), Matchers.annotatedWith(Transactional.class),
+            transactionTimer);
+      bind(JdbcMetricsExporter.class).asEagerSingleton();
+      bind(PayloadReclaimer.class).asEagerSingleton();
    }
 
 }
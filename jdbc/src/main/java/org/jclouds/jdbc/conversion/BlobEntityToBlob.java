@@ -17,35 +17,59 @@
 package org.jclouds.jdbc.conversion;
 
 import com.google.common.base.Function;
-import com.google.common.hash.HashCode;
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import org.jclouds.Constants;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobBuilder;
 import org.jclouds.blobstore.domain.StorageType;
 import org.jclouds.jdbc.entity.BlobEntity;
 import org.jclouds.jdbc.entity.PayloadEntity;
+import org.jclouds.jdbc.reference.JdbcConstants;
 import org.jclouds.jdbc.service.JdbcService;
-import org.jclouds.jdbc.util.JdbcInputStream;
+import org.jclouds.jdbc.util.JdbcByteSource;
+
+import javax.inject.Named;
 
 public class BlobEntityToBlob implements Function<BlobEntity, Blob> {
 
    private final Provider<BlobBuilder> blobBuilders;
    private final JdbcService jdbcService;
+   private final BlobEntityToBlobMetadata blobEntityToBlobMetadata;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_READ_AHEAD)
+   private boolean readAhead = false;
+
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_USER_THREADS)
+   private ListeningExecutorService userExecutor;
 
    @Inject
-   BlobEntityToBlob(Provider<BlobBuilder> blobBuilders, JdbcService jdbcService) {
+   BlobEntityToBlob(Provider<BlobBuilder> blobBuilders, JdbcService jdbcService,
+         BlobEntityToBlobMetadata blobEntityToBlobMetadata) {
       this.blobBuilders = blobBuilders;
       this.jdbcService = jdbcService;
+      this.blobEntityToBlobMetadata = blobEntityToBlobMetadata;
    }
 
    @Override
    public Blob apply(BlobEntity blobEntity) {
+      return apply(blobEntity, blobEntity == null || blobEntity.isDirectory() ? null : payloadSource(blobEntity));
+   }
+
+   /**
+    * Converts a blob entity, reading its content from the given source instead of the database.
+    *
+    * @param content the content of the blob, ignored for directories
+    */
+   public Blob apply(BlobEntity blobEntity, ByteSource content) {
       if (blobEntity == null) {
          return null;
       }
 
-      PayloadEntity payload = blobEntity.getPayload();
       BlobBuilder builder = blobBuilders.get()
             .name(blobEntity.getKey())
             .userMetadata(blobEntity.getUserMetadata());
@@ -54,28 +78,23 @@ public class BlobEntityToBlob implements Function<BlobEntity, Blob> {
          builder.type(StorageType.FOLDER);
       }
       else {
-         builder.payload(new JdbcInputStream(jdbcService, blobEntity.getPayload().getChunks()));
+         builder.payload(content);
       }
 
       Blob blob = builder.build();
-
-      blob.getMetadata().setContainer(blobEntity.getContainerEntity().getName());
-      blob.getMetadata().setCreationDate(blobEntity.getCreationDate());
-      blob.getMetadata().setLastModified(blobEntity.getLastModified());
-      blob.getMetadata().setSize(blobEntity.getSize());
-      blob.getMetadata().setUserMetadata(blobEntity.getUserMetadata());
-
-      blob.getMetadata().getContentMetadata().setContentType(payload.getContentType());
-      blob.getMetadata().getContentMetadata().setContentDisposition(payload.getContentDisposition());
-      blob.getMetadata().getContentMetadata().setContentEncoding(payload.getContentEncoding());
-      blob.getMetadata().getContentMetadata().setContentLanguage(payload.getContentLanguage());
-      blob.getMetadata().getContentMetadata().setContentLength(payload.getContentLength());
-      blob.getMetadata().getContentMetadata().setContentMD5(payload.getContentMD5() == null ?
-            null :
-            HashCode.fromBytes(payload.getContentMD5()));
-      blob.getMetadata().setETag(blobEntity.getEtag());
-      blob.getMetadata().getContentMetadata().setExpires(payload.getExpires());
+      blobEntityToBlobMetadata.populate(blobEntity, blob.getMetadata());
       return blob;
    }
 
+   private ByteSource payloadSource(BlobEntity blobEntity) {
+      PayloadEntity payload = blobEntity.getPayload();
+      if (payload.getData() != null) {
+         return ByteSource.wrap(payload.getData());
+      }
+      Long size = payload.getContentLength() != null ? payload.getContentLength() : blobEntity.getSize();
+      int chunkSize = payload.getChunkSize() != null ? payload.getChunkSize() : JdbcConstants.DEFAULT_CHUNK_SIZE;
+      return new JdbcByteSource(jdbcService, payload.getId(), chunkSize, size == null ? 0 : size,
+            readAhead ? userExecutor : null);
+   }
+
 }
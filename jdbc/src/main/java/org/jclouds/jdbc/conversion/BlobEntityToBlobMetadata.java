@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.conversion;
+
+import com.google.common.base.Function;
+import com.google.common.hash.HashCode;
+import org.jclouds.blobstore.domain.MutableBlobMetadata;
+import org.jclouds.blobstore.domain.StorageType;
+import org.jclouds.blobstore.domain.internal.MutableBlobMetadataImpl;
+import org.jclouds.io.MutableContentMetadata;
+import org.jclouds.jdbc.entity.BlobEntity;
+import org.jclouds.jdbc.entity.PayloadEntity;
+
+/**
+ * Converts a blob entity to its metadata only. The chunks of the payload are neither loaded nor referenced, so the
+ * cost of the conversion does not depend on the size of the blob.
+ */
+public class BlobEntityToBlobMetadata implements Function<BlobEntity, MutableBlobMetadata> {
+
+   @Override
+   public MutableBlobMetadata apply(BlobEntity blobEntity) {
+      if (blobEntity == null) {
+         return null;
+      }
+      MutableBlobMetadata metadata = new MutableBlobMetadataImpl();
+      metadata.setName(blobEntity.getKey());
+      metadata.setType(blobEntity.isDirectory() ? StorageType.FOLDER : StorageType.BLOB);
+      populate(blobEntity, metadata);
+      return metadata;
+   }
+
+   /**
+    * Copies the metadata of a blob entity to existing blob metadata.
+    */
+   void populate(BlobEntity blobEntity, MutableBlobMetadata metadata) {
+      metadata.setContainer(blobEntity.getContainerEntity().getName());
+      metadata.setCreationDate(blobEntity.getCreationDate());
+      metadata.setLastModified(blobEntity.getLastModified());
+      metadata.setSize(blobEntity.getSize());
+      metadata.setUserMetadata(blobEntity.getUserMetadata());
+      metadata.setETag(blobEntity.getEtag());
+
+      PayloadEntity payload = blobEntity.getPayload();
+      MutableContentMetadata contentMetadata = metadata.getContentMetadata();
+      contentMetadata.setContentType(payload.getContentType());
+      contentMetadata.setContentDisposition(payload.getContentDisposition());
+      contentMetadata.setContentEncoding(payload.getContentEncoding());
+      contentMetadata.setContentLanguage(payload.getContentLanguage());
+      contentMetadata.setContentLength(payload.getContentLength());
+      contentMetadata.setContentMD5(payload.getContentMD5() == null ? null : HashCode.fromBytes(payload.getContentMD5()));
+      contentMetadata.setExpires(payload.getExpires());
+   }
+
+}
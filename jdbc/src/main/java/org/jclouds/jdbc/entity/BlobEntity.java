@@ -19,6 +19,7 @@ package org.jclouds.jdbc.entity;
 import org.jclouds.blobstore.domain.BlobAccess;
 
 import javax.persistence.CascadeType;
+import javax.persistence.CollectionTable;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
@@ -29,6 +30,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.OneToOne;
 import javax.persistence.PrePersist;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.util.Date;
 import java.util.Map;
 
@@ -37,6 +39,11 @@ import java.util.Map;
 @IdClass(value = BlobEntityPK.class)
 public class BlobEntity {
 
+   /**
+    * Table holding the user metadata of the blobs, referenced by native bulk statements.
+    */
+   public static final String USER_METADATA_TABLE = "blob_metadata";
+
    @Id
    @ManyToOne
    @JoinColumn(name = "id")
@@ -46,9 +53,13 @@ public class BlobEntity {
    private String key;
 
    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+   @JoinColumn(name = "payload_id")
    private PayloadEntity payload;
 
    @ElementCollection(fetch = FetchType.EAGER)
+   @CollectionTable(name = USER_METADATA_TABLE, joinColumns = {
+         @JoinColumn(name = "container_id", referencedColumnName = "id"),
+         @JoinColumn(name = "blob_key", referencedColumnName = "key") })
    public Map<String, String> userMetadata;
 
    private Date creationDate;
@@ -58,6 +69,12 @@ public class BlobEntity {
    private String etag;
    private boolean directory;
 
+   /**
+    * Incremented by each update, so that concurrent overwrites of the same blob are detected when they commit.
+    */
+   @Version
+   private long version;
+
    @PrePersist
    private void defaults() {
       this.lastModified = new Date();
@@ -158,6 +175,10 @@ public class BlobEntity {
       this.size = size;
    }
 
+   public long getVersion() {
+      return version;
+   }
+
    public String getEtag() {
       return etag;
    }
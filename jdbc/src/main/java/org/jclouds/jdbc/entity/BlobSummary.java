@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.entity;
+
+import java.util.Date;
+
+/**
+ * Listing projection of a {@link BlobEntity}. It is loaded without touching the payload, chunk or user metadata
+ * tables.
+ */
+public class BlobSummary {
+
+   private final String key;
+   private final boolean directory;
+   private final String etag;
+   private final Date creationDate;
+   private final Date lastModified;
+   private final Long size;
+
+   public BlobSummary(String key, boolean directory, String etag, Date creationDate, Date lastModified, Long size) {
+      this.key = key;
+      this.directory = directory;
+      this.etag = etag;
+      this.creationDate = creationDate;
+      this.lastModified = lastModified;
+      this.size = size;
+   }
+
+   public String getKey() {
+      return key;
+   }
+
+   public boolean isDirectory() {
+      return directory;
+   }
+
+   public String getEtag() {
+      return etag;
+   }
+
+   public Date getCreationDate() {
+      return creationDate;
+   }
+
+   public Date getLastModified() {
+      return lastModified;
+   }
+
+   public Long getSize() {
+      return size;
+   }
+
+}
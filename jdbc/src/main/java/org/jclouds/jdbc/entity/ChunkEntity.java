@@ -20,31 +20,68 @@ import org.jclouds.jdbc.reference.JdbcConstants;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Lob;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 @Entity
-@Table
+@Table(indexes = @Index(name = "chunk_content_hash", columnList = "content_hash"))
 public class ChunkEntity {
 
+   /**
+    * Column counting the payloads referencing a chunk, referenced by native bulk statements.
+    */
+   public static final String REF_COUNT_COLUMN = "ref_count";
+
    @Id
-   @GeneratedValue(strategy = GenerationType.SEQUENCE)
+   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chunk_sequence")
+   @SequenceGenerator(name = "chunk_sequence", allocationSize = JdbcConstants.CHUNK_ID_ALLOCATION_SIZE)
    private Long id;
 
    @Lob
-   @Column(length = JdbcConstants.DEFAULT_CHUNK_SIZE)
+   @Column(length = JdbcConstants.MAX_CHUNK_SIZE)
    private byte[] data;
 
+   /**
+    * Size of the chunk content, before it is encoded by {@link #codec}.
+    */
    private int size;
 
+   /**
+    * Encoding of the data, or null if the data is stored as is.
+    */
+   @Enumerated(EnumType.STRING)
+   @Column(length = 16)
+   private ChunkCodec codec;
+
+   /**
+    * SHA-256 of the chunk data, set when the chunk was stored with deduplication enabled.
+    */
+   @Column(name = "content_hash", length = 64)
+   private String hash;
+
+   /**
+    * Number of payloads referencing this chunk. The chunk is deleted when it drops to zero.
+    */
+   @Column(name = REF_COUNT_COLUMN, nullable = false)
+   private int refCount = 1;
+
    public ChunkEntity(byte[] data, int size) {
       this.data = data;
       this.size = size;
    }
 
+   public ChunkEntity(byte[] data, int size, String hash) {
+      this(data, size);
+      this.hash = hash;
+   }
+
    public ChunkEntity() {
    }
 
@@ -71,4 +108,28 @@ public class ChunkEntity {
    public void setSize(int size) {
       this.size = size;
    }
+
+   public ChunkCodec getCodec() {
+      return codec;
+   }
+
+   public void setCodec(ChunkCodec codec) {
+      this.codec = codec;
+   }
+
+   public String getHash() {
+      return hash;
+   }
+
+   public void setHash(String hash) {
+      this.hash = hash;
+   }
+
+   public int getRefCount() {
+      return refCount;
+   }
+
+   public void setRefCount(int refCount) {
+      this.refCount = refCount;
+   }
 }
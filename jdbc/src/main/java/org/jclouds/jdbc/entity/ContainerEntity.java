@@ -42,14 +42,27 @@ public class ContainerEntity {
 
    private ContainerAccess containerAccess;
 
+   /**
+    * Size of the chunks blobs in this container are split into, or null to use the configured chunk size.
+    */
+   private Integer chunkSize;
+
+   /**
+    * Whether the chunks of the blobs in this container are compressed, or null to use the configured setting.
+    */
+   private Boolean compression;
+
    public ContainerEntity() {
    }
 
-   public ContainerEntity(Long id, String name, Date creationDate, ContainerAccess containerAccess) {
+   public ContainerEntity(Long id, String name, Date creationDate, ContainerAccess containerAccess, Integer chunkSize,
+         Boolean compression) {
       this.id = id;
       this.name = name;
       this.creationDate = creationDate;
       this.containerAccess = containerAccess;
+      this.chunkSize = chunkSize;
+      this.compression = compression;
    }
 
    @PrePersist
@@ -92,6 +105,22 @@ public class ContainerEntity {
       this.containerAccess = containerAccess;
    }
 
+   public Integer getChunkSize() {
+      return chunkSize;
+   }
+
+   public void setChunkSize(Integer chunkSize) {
+      this.chunkSize = chunkSize;
+   }
+
+   public Boolean getCompression() {
+      return compression;
+   }
+
+   public void setCompression(Boolean compression) {
+      this.compression = compression;
+   }
+
    public static Builder builder() {
       return new Builder();
    }
@@ -99,6 +128,8 @@ public class ContainerEntity {
    public static class Builder {
       private String name;
       private ContainerAccess containerAccess;
+      private Integer chunkSize;
+      private Boolean compression;
 
       public Builder() {
       }
@@ -113,8 +144,18 @@ public class ContainerEntity {
          return this;
       }
 
+      public Builder chunkSize(Integer chunkSize){
+         this.chunkSize = chunkSize;
+         return this;
+      }
+
+      public Builder compression(Boolean compression){
+         this.compression = compression;
+         return this;
+      }
+
       public ContainerEntity build() {
-         return new ContainerEntity(null, name, null, containerAccess);
+         return new ContainerEntity(null, name, null, containerAccess, chunkSize, compression);
       }
    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.entity;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.OneToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.util.Date;
+
+/**
+ * Part of a multipart upload, stored as a chunk sequence of its own. Parts refer to their upload by id only, so that
+ * parts of the same upload can be stored concurrently without locking the upload row.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = { "upload_id", "part_number" }))
+public class MultipartPartEntity {
+
+   @Id
+   @GeneratedValue(strategy = GenerationType.SEQUENCE)
+   private Long id;
+
+   @Column(name = "upload_id", nullable = false)
+   private String uploadId;
+
+   @Column(name = "part_number")
+   private int partNumber;
+
+   @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+   @JoinColumn(name = "payload_id")
+   private PayloadEntity payload;
+
+   private String etag;
+   private Date lastModified;
+
+   @PrePersist
+   private void defaults() {
+      lastModified = new Date();
+   }
+
+   public MultipartPartEntity() {
+   }
+
+   public MultipartPartEntity(String uploadId, int partNumber, PayloadEntity payload, String etag) {
+      this.uploadId = uploadId;
+      this.partNumber = partNumber;
+      this.payload = payload;
+      this.etag = etag;
+   }
+
+   public Long getId() {
+      return id;
+   }
+
+   public String getUploadId() {
+      return uploadId;
+   }
+
+   public int getPartNumber() {
+      return partNumber;
+   }
+
+   public PayloadEntity getPayload() {
+      return payload;
+   }
+
+   public String getEtag() {
+      return etag;
+   }
+
+   public Date getLastModified() {
+      return lastModified;
+   }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.entity;
+
+import org.jclouds.blobstore.domain.BlobAccess;
+
+import javax.persistence.CascadeType;
+import javax.persistence.CollectionTable;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Multipart upload in progress. The payload holds the content metadata of the blob being uploaded, its chunks are
+ * only set when the upload is completed.
+ */
+@Entity
+@Table
+public class MultipartUploadEntity {
+
+   @Id
+   private String id;
+
+   @ManyToOne
+   @JoinColumn(name = "container_id")
+   private ContainerEntity containerEntity;
+
+   private String blobKey;
+
+   @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+   @JoinColumn(name = "payload_id")
+   private PayloadEntity payload;
+
+   @ElementCollection(fetch = FetchType.EAGER)
+   @CollectionTable(name = "multipart_metadata", joinColumns = @JoinColumn(name = "upload_id"))
+   private Map<String, String> userMetadata;
+
+   private BlobAccess blobAccess;
+   private Date initiated;
+
+   @PrePersist
+   private void defaults() {
+      if (initiated == null) {
+         initiated = new Date();
+      }
+   }
+
+   public MultipartUploadEntity() {
+   }
+
+   public MultipartUploadEntity(String id, ContainerEntity containerEntity, String blobKey, PayloadEntity payload,
+         Map<String, String> userMetadata, BlobAccess blobAccess) {
+      this.id = id;
+      this.containerEntity = containerEntity;
+      this.blobKey = blobKey;
+      this.payload = payload;
+      this.userMetadata = userMetadata;
+      this.blobAccess = blobAccess;
+   }
+
+   public String getId() {
+      return id;
+   }
+
+   public ContainerEntity getContainerEntity() {
+      return containerEntity;
+   }
+
+   public String getBlobKey() {
+      return blobKey;
+   }
+
+   public PayloadEntity getPayload() {
+      return payload;
+   }
+
+   public Map<String, String> getUserMetadata() {
+      return userMetadata;
+   }
+
+   public BlobAccess getBlobAccess() {
+      return blobAccess;
+   }
+
+   public Date getInitiated() {
+      return initiated;
+   }
+
+}
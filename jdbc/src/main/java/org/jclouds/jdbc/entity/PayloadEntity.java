@@ -17,26 +17,66 @@
 package org.jclouds.jdbc.entity;
 
 import com.google.common.collect.ImmutableList;
+import org.jclouds.jdbc.reference.JdbcConstants;
 
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.Lob;
+import javax.persistence.OrderColumn;
+import javax.persistence.Table;
 import java.util.Date;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "payload_reclaim_after", columnList = "reclaim_after"))
 public class PayloadEntity {
 
+   /**
+    * Table holding the chunk ids of the payloads, referenced by native bulk statements.
+    */
+   public static final String CHUNKS_TABLE = "payload_chunks";
+
+   /**
+    * Column holding the position of a chunk in its payload.
+    */
+   public static final String CHUNK_INDEX_COLUMN = "chunk_index";
+
    @Id
    @GeneratedValue(strategy = GenerationType.SEQUENCE)
    private Long id;
 
-   @ElementCollection(fetch = FetchType.EAGER)
+   /**
+    * Ids of the chunks holding the content, in order. A chunk may appear more than once. They are only loaded when
+    * the content is accessed, since a large blob has thousands of them.
+    */
+   @ElementCollection(fetch = FetchType.LAZY)
+   @CollectionTable(name = CHUNKS_TABLE, joinColumns = @JoinColumn(name = "payload_id"))
+   @Column(name = "chunk_id")
+   @OrderColumn(name = CHUNK_INDEX_COLUMN)
    private List<Long> chunks;
 
+   /**
+    * Size of the chunks this payload was split into. Null for payloads stored with
+    * {@link JdbcConstants#DEFAULT_CHUNK_SIZE} chunks before the chunk size was recorded, and zero when the chunks
+    * have different sizes, as for completed multipart uploads.
+    */
+   private Integer chunkSize;
+
+   /**
+    * Content of small payloads, stored here instead of in the chunk table.
+    */
+   @Lob
+   @Column(length = JdbcConstants.MAX_INLINE_SIZE)
+   private byte[] data;
+
    private String contentType;
    private Long contentLength;
    private byte[] contentMD5;
@@ -45,9 +85,17 @@ public class PayloadEntity {
    private String contentEncoding;
    private Date expires;
 
-   public PayloadEntity(List<Long> chunks, String contentType, Long contentLength, byte[] contentMD5,
+   /**
+    * Time after which this payload, replaced by an overwrite, is deleted. Null while a blob refers to it.
+    */
+   @Column(name = "reclaim_after")
+   private Date reclaimAfter;
+
+   public PayloadEntity(List<Long> chunks, Integer chunkSize, byte[] data, String contentType, Long contentLength, byte[] contentMD5,
          String contentDisposition, String contentLanguage, String contentEncoding, Date expires) {
       this.chunks = chunks;
+      this.chunkSize = chunkSize;
+      this.data = data;
       this.contentType = contentType;
       this.contentLength = contentLength;
       this.contentMD5 = contentMD5;
@@ -76,6 +124,22 @@ public class PayloadEntity {
       this.chunks = chunks;
    }
 
+   public Integer getChunkSize() {
+      return chunkSize;
+   }
+
+   public void setChunkSize(Integer chunkSize) {
+      this.chunkSize = chunkSize;
+   }
+
+   public byte[] getData() {
+      return data;
+   }
+
+   public void setData(byte[] data) {
+      this.data = data;
+   }
+
    public String getContentType() {
       return contentType;
    }
@@ -132,12 +196,22 @@ public class PayloadEntity {
       this.expires = expires;
    }
 
+   public Date getReclaimAfter() {
+      return reclaimAfter;
+   }
+
+   public void setReclaimAfter(Date reclaimAfter) {
+      this.reclaimAfter = reclaimAfter;
+   }
+
    public static Builder builder() {
       return new Builder();
    }
 
    public static class Builder {
       private List<Long> chunks;
+      private Integer chunkSize;
+      private byte[] data;
       private String contentType;
       private Long contentLength;
       private byte[] contentMD5;
@@ -155,6 +229,16 @@ public class PayloadEntity {
          return this;
       }
 
+      public Builder chunkSize(Integer chunkSize) {
+         this.chunkSize = chunkSize;
+         return this;
+      }
+
+      public Builder data(byte[] data) {
+         this.data = data;
+         return this;
+      }
+
       public Builder contentType(String contentType) {
          this.contentType = contentType;
          return this;
@@ -191,7 +275,7 @@ public class PayloadEntity {
       }
 
       public PayloadEntity build() {
-         return new PayloadEntity(chunks, contentType, contentLength, contentMD5, contentDisposition, contentLanguage, contentEncoding, expires);
+         return new PayloadEntity(chunks, chunkSize, data, contentType, contentLength, contentMD5, contentDisposition, contentLanguage, contentEncoding, expires);
       }
    }
 
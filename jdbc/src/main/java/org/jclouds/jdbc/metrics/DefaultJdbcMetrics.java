@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.jdbc.reference.JdbcConstants;
+import org.jclouds.jdbc.repository.ContainerRepository;
+import org.jclouds.jdbc.util.BlobCache;
+import org.jclouds.logging.Logger;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+
+/**
+ * Keeps the measurements of the jdbc provider in memory, and logs the operations slower than
+ * {@link JdbcConstants#PROPERTY_SLOW_OPERATION_THRESHOLD}.
+ */
+@Singleton
+public class DefaultJdbcMetrics implements JdbcMetrics, JdbcMetricsMXBean {
+
+   @Resource
+   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_SLOW_OPERATION_THRESHOLD)
+   private long slowOperationThreshold = 0;
+
+   private final Provider<ContainerRepository> containerRepository;
+   private final Provider<BlobCache> blobCache;
+   private final ConcurrentMap<String, Timer> operations = Maps.newConcurrentMap();
+   private final ConcurrentMap<String, Timer> transactions = Maps.newConcurrentMap();
+   private final AtomicLong slowOperations = new AtomicLong();
+   private final AtomicLong chunksRead = new AtomicLong();
+   private final AtomicLong chunkBytesRead = new AtomicLong();
+   private final AtomicLong chunksWritten = new AtomicLong();
+   private final AtomicLong chunkBytesWritten = new AtomicLong();
+   private final AtomicLong chunksDeduplicated = new AtomicLong();
+   private volatile CacheStats containerCacheBaseline = new CacheStats(0, 0, 0, 0, 0, 0);
+   private volatile CacheStats blobCacheBaseline = new CacheStats(0, 0, 0, 0, 0, 0);
+
+   @Inject
+   DefaultJdbcMetrics(Provider<ContainerRepository> containerRepository, Provider<BlobCache> blobCache) {
+      this.containerRepository = containerRepository;
+      this.blobCache = blobCache;
+   }
+
+   @Override
+   public void operation(Operation operation, String container, @Nullable String key, long startNanos) {
+      long millis = record(operation, startNanos);
+      // the target is only formatted for the operations that are logged
+      if (isSlow(millis)) {
+         logger.warn("<< slow %s of %s: %d ms", operation, key == null ? container : container + "/" + key, millis);
+      }
+   }
+
+   @Override
+   public void operation(Operation operation, String container, int blobs, long startNanos) {
+      long millis = record(operation, startNanos);
+      if (isSlow(millis)) {
+         logger.warn("<< slow %s of %s (%d blobs): %d ms", operation, container, blobs, millis);
+      }
+   }
+
+   private long record(Operation operation, long startNanos) {
+      long nanos = System.nanoTime() - startNanos;
+      timer(operations, operation.name()).record(nanos);
+      return TimeUnit.NANOSECONDS.toMillis(nanos);
+   }
+
+   private boolean isSlow(long millis) {
+      if (slowOperationThreshold > 0 && millis >= slowOperationThreshold) {
+         slowOperations.incrementAndGet();
+         return true;
+      }
+      return false;
+   }
+
+   @Override
+   public void transaction(String name, long startNanos) {
+      timer(transactions, name).record(System.nanoTime() - startNanos);
+   }
+
+   @Override
+   public void chunksRead(int chunks, long bytes) {
+      chunksRead.addAndGet(chunks);
+      chunkBytesRead.addAndGet(bytes);
+   }
+
+   @Override
+   public void chunksWritten(int chunks, long bytes) {
+      chunksWritten.addAndGet(chunks);
+      chunkBytesWritten.addAndGet(bytes);
+   }
+
+   @Override
+   public void chunksDeduplicated(int chunks) {
+      chunksDeduplicated.addAndGet(chunks);
+   }
+
+   @Override
+   public Map<String, TimerStatistics> getOperations() {
+      return statistics(operations);
+   }
+
+   @Override
+   public Map<String, TimerStatistics> getTransactions() {
+      return statistics(transactions);
+   }
+
+   @Override
+   public long getSlowOperations() {
+      return slowOperations.get();
+   }
+
+   @Override
+   public long getChunksRead() {
+      return chunksRead.get();
+   }
+
+   @Override
+   public long getChunkBytesRead() {
+      return chunkBytesRead.get();
+   }
+
+   @Override
+   public long getChunksWritten() {
+      return chunksWritten.get();
+   }
+
+   @Override
+   public long getChunkBytesWritten() {
+      return chunkBytesWritten.get();
+   }
+
+   @Override
+   public long getChunksDeduplicated() {
+      return chunksDeduplicated.get();
+   }
+
+   @Override
+   public long getContainerCacheHits() {
+      return containerCacheStats().hitCount();
+   }
+
+   @Override
+   public long getContainerCacheMisses() {
+      return containerCacheStats().missCount();
+   }
+
+   @Override
+   public long getBlobCacheHits() {
+      return blobCacheStats().hitCount();
+   }
+
+   @Override
+   public long getBlobCacheMisses() {
+      return blobCacheStats().missCount();
+   }
+
+   @Override
+   public long getBlobCacheEvictions() {
+      return blobCacheStats().evictionCount();
+   }
+
+   @Override
+   public void reset() {
+      operations.clear();
+      transactions.clear();
+      slowOperations.set(0);
+      chunksRead.set(0);
+      chunkBytesRead.set(0);
+      chunksWritten.set(0);
+      chunkBytesWritten.set(0);
+      chunksDeduplicated.set(0);
+      containerCacheBaseline = containerRepository.get().containerCacheStats();
+      blobCacheBaseline = blobCache.get().stats();
+   }
+
+   private CacheStats containerCacheStats() {
+      return containerRepository.get().containerCacheStats().minus(containerCacheBaseline);
+   }
+
+   private CacheStats blobCacheStats() {
+      return blobCache.get().stats().minus(blobCacheBaseline);
+   }
+
+   private static Timer timer(ConcurrentMap<String, Timer> timers, String name) {
+      Timer timer = timers.get(name);
+      if (timer == null) {
+         Timer newTimer = new Timer();
+         timer = timers.putIfAbsent(name, newTimer);
+         if (timer == null) {
+            timer = newTimer;
+         }
+      }
+      return timer;
+   }
+
+   private static Map<String, TimerStatistics> statistics(Map<String, Timer> timers) {
+      ImmutableSortedMap.Builder<String, TimerStatistics> result = ImmutableSortedMap.naturalOrder();
+      for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+         result.put(entry.getKey(), entry.getValue().statistics());
+      }
+      return result.build();
+   }
+
+   private static final class Timer {
+      private final AtomicLong count = new AtomicLong();
+      private final AtomicLong totalNanos = new AtomicLong();
+      private final AtomicLong maxNanos = new AtomicLong();
+
+      void record(long nanos) {
+         count.incrementAndGet();
+         totalNanos.addAndGet(nanos);
+         long max = maxNanos.get();
+         while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+         }
+      }
+
+      TimerStatistics statistics() {
+         return new TimerStatistics(count.get(), TimeUnit.NANOSECONDS.toMillis(totalNanos.get()),
+               TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+      }
+   }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.metrics;
+
+import org.jclouds.javax.annotation.Nullable;
+
+import com.google.inject.ImplementedBy;
+
+/**
+ * Receives the measurements of the jdbc provider. The default implementation keeps counters that are exposed
+ * through JMX, another registry can be plugged by binding this interface in a custom module.
+ */
+@ImplementedBy(DefaultJdbcMetrics.class)
+public interface JdbcMetrics {
+
+   enum Operation {
+      PUT, GET, LIST, DELETE, CLEAR
+   }
+
+   /**
+    * Records a blob store operation on a container or on one of its blobs.
+    *
+    * @param key the blob the operation applies to, or null for an operation on the whole container
+    * @param startNanos the {@link System#nanoTime()} at which the operation started
+    */
+   void operation(Operation operation, String container, @Nullable String key, long startNanos);
+
+   /**
+    * Records a blob store operation on several blobs of a container.
+    *
+    * @param blobs the number of blobs the operation applies to
+    * @param startNanos the {@link System#nanoTime()} at which the operation started
+    */
+   void operation(Operation operation, String container, int blobs, long startNanos);
+
+   /**
+    * Records a transaction of the jdbc service, from its start to its commit or rollback.
+    *
+    * @param name the name of the service method running the transaction
+    * @param startNanos the {@link System#nanoTime()} at which the transaction started
+    */
+   void transaction(String name, long startNanos);
+
+   /**
+    * Records chunks loaded from the database.
+    *
+    * @param bytes the stored size of the chunks, before they are decompressed
+    */
+   void chunksRead(int chunks, long bytes);
+
+   /**
+    * Records chunks written to the database.
+    *
+    * @param bytes the stored size of the chunks, after they are compressed
+    */
+   void chunksWritten(int chunks, long bytes);
+
+   /**
+    * Records chunks that were already stored and were referenced instead of written.
+    */
+   void chunksDeduplicated(int chunks);
+
+}
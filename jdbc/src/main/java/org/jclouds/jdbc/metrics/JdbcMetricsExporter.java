@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.metrics;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.jdbc.reference.JdbcConstants;
+import org.jclouds.lifecycle.Closer;
+import org.jclouds.logging.Logger;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Registers the metrics of the context in the platform MBean server, under the
+ * {@link #DOMAIN}{@code :type=JdbcMetrics} name, and unregisters them when the context is closed. Nothing is
+ * registered when the metrics implementation is not a {@link JdbcMetricsMXBean} or
+ * {@link JdbcConstants#PROPERTY_JMX} is false.
+ */
+@Singleton
+public class JdbcMetricsExporter implements Closeable {
+
+   public static final String DOMAIN = "org.jclouds.jdbc";
+
+   @Resource
+   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+   private ObjectName name;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_JMX)
+   private boolean enabled = true;
+
+   private final JdbcMetrics metrics;
+   private final Closer closer;
+
+   @Inject
+   JdbcMetricsExporter(JdbcMetrics metrics, Closer closer) {
+      this.metrics = metrics;
+      this.closer = closer;
+   }
+
+   @Inject
+   synchronized void register() {
+      if (!enabled || !(metrics instanceof JdbcMetricsMXBean) || name != null) {
+         return;
+      }
+      try {
+         // several contexts may live in the same JVM
+         ObjectName objectName = new ObjectName(DOMAIN + ":type=JdbcMetrics,id="
+               + Integer.toHexString(System.identityHashCode(metrics)));
+         server.registerMBean(metrics, objectName);
+         name = objectName;
+         closer.addToClose(this);
+      } catch (JMException e) {
+         logger.warn(e, "could not register the jdbc metrics");
+      }
+   }
+
+   @Override
+   public synchronized void close() {
+      if (name == null) {
+         return;
+      }
+      try {
+         server.unregisterMBean(name);
+      } catch (JMException e) {
+         logger.warn(e, "could not unregister the jdbc metrics");
+      }
+      name = null;
+   }
+
+}
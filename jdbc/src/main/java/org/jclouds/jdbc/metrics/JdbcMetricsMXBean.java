@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of the {@link DefaultJdbcMetrics}. Times are in milliseconds.
+ */
+public interface JdbcMetricsMXBean {
+
+   /**
+    * @return the statistics of the blob store operations, by operation
+    */
+   Map<String, TimerStatistics> getOperations();
+
+   /**
+    * @return the statistics of the transactions, by service method
+    */
+   Map<String, TimerStatistics> getTransactions();
+
+   long getSlowOperations();
+
+   long getChunksRead();
+
+   long getChunkBytesRead();
+
+   long getChunksWritten();
+
+   long getChunkBytesWritten();
+
+   long getChunksDeduplicated();
+
+   long getContainerCacheHits();
+
+   long getContainerCacheMisses();
+
+   long getBlobCacheHits();
+
+   long getBlobCacheMisses();
+
+   long getBlobCacheEvictions();
+
+   /**
+    * Resets all the counters.
+    */
+   void reset();
+
+}
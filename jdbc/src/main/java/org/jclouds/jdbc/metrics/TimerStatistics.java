@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of the calls recorded by a timer, in milliseconds.
+ */
+public final class TimerStatistics {
+
+   private final long count;
+   private final long totalMillis;
+   private final long maxMillis;
+
+   @ConstructorProperties({ "count", "totalMillis", "maxMillis" })
+   public TimerStatistics(long count, long totalMillis, long maxMillis) {
+      this.count = count;
+      this.totalMillis = totalMillis;
+      this.maxMillis = maxMillis;
+   }
+
+   public long getCount() {
+      return count;
+   }
+
+   public long getTotalMillis() {
+      return totalMillis;
+   }
+
+   public long getMaxMillis() {
+      return maxMillis;
+   }
+
+   public double getMeanMillis() {
+      return count == 0 ? 0 : (double) totalMillis / count;
+   }
+
+}
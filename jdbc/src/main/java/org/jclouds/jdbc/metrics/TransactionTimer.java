@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import com.google.inject.Inject;
+
+/**
+ * Times the transactional methods of the jdbc service. Only the outermost method of a thread is recorded, since the
+ * methods it calls join its transaction. When it is bound before the persistence module, the time includes the
+ * commit.
+ */
+public class TransactionTimer implements MethodInterceptor {
+
+   private final ThreadLocal<Boolean> inTransaction = new ThreadLocal<Boolean>();
+
+   @Inject
+   private JdbcMetrics metrics;
+
+   @Override
+   public Object invoke(MethodInvocation invocation) throws Throwable {
+      if (inTransaction.get() != null) {
+         return invocation.proceed();
+      }
+      inTransaction.set(Boolean.TRUE);
+      long start = System.nanoTime();
+      try {
+         return invocation.proceed();
+      } finally {
+         inTransaction.remove();
+         metrics.transaction(invocation.getMethod().getName(), start);
+      }
+   }
+
+}
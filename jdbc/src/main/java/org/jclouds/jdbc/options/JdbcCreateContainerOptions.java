@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.options;
+
+import org.jclouds.blobstore.options.CreateContainerOptions;
+import org.jclouds.jdbc.reference.JdbcConstants;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Contains options supported by the jdbc provider when creating containers.
+ *
+ * <pre>
+ * import static org.jclouds.jdbc.options.JdbcCreateContainerOptions.Builder.*
+ *
+ * blobStore.createContainerInLocation(null, "logs", chunkSize(4 * 1024 * 1024));
+ * </pre>
+ */
+public class JdbcCreateContainerOptions extends CreateContainerOptions {
+
+   private Integer chunkSize;
+   private Boolean compression;
+
+   /**
+    * Splits the blobs of the container in chunks of the given size instead of the configured chunk size.
+    */
+   public JdbcCreateContainerOptions chunkSize(int chunkSize) {
+      checkArgument(chunkSize > 0 && chunkSize <= JdbcConstants.MAX_CHUNK_SIZE,
+            "chunkSize must be between 1 and %s", JdbcConstants.MAX_CHUNK_SIZE);
+      this.chunkSize = chunkSize;
+      return this;
+   }
+
+   public Integer getChunkSize() {
+      return chunkSize;
+   }
+
+   /**
+    * Compresses the chunks of the blobs of the container, or stores them as is, whatever the configured setting.
+    */
+   public JdbcCreateContainerOptions compression(boolean compression) {
+      this.compression = compression;
+      return this;
+   }
+
+   public Boolean getCompression() {
+      return compression;
+   }
+
+   @Override
+   public JdbcCreateContainerOptions publicRead() {
+      super.publicRead();
+      return this;
+   }
+
+   public static class Builder {
+
+      /**
+       * @see JdbcCreateContainerOptions#chunkSize(int)
+       */
+      public static JdbcCreateContainerOptions chunkSize(int chunkSize) {
+         return new JdbcCreateContainerOptions().chunkSize(chunkSize);
+      }
+
+      /**
+       * @see JdbcCreateContainerOptions#compression(boolean)
+       */
+      public static JdbcCreateContainerOptions compression(boolean compression) {
+         return new JdbcCreateContainerOptions().compression(compression);
+      }
+
+      /**
+       * @see JdbcCreateContainerOptions#publicRead()
+       */
+      public static JdbcCreateContainerOptions publicRead() {
+         return new JdbcCreateContainerOptions().publicRead();
+      }
+
+   }
+
+}
@@ -16,6 +16,8 @@
  */
 package org.jclouds.jdbc.reference;
 
+import java.util.zip.Deflater;
+
 /**
  * Common constants used in jdbc provider
  */
@@ -23,6 +25,186 @@ public final class JdbcConstants {
 
     public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
 
+    /**
+     * Largest chunk the chunk table can hold. Blobs bigger than {@link #TARGET_CHUNKS_PER_BLOB} chunks of the
+     * configured size are stored in bigger chunks, up to this size.
+     */
+    public static final int MAX_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * Number of chunks above which a blob of known length is stored with bigger chunks.
+     */
+    public static final int TARGET_CHUNKS_PER_BLOB = 1024;
+
+    /**
+     * Granularity of the chunk sizes chosen for big blobs.
+     */
+    public static final int CHUNK_SIZE_ALIGNMENT = 64 * 1024;
+
+    public static final int DEFAULT_INLINE_THRESHOLD = 16 * 1024;
+
+    /**
+     * Largest payload that can be stored inline in the payload table.
+     */
+    public static final int MAX_INLINE_SIZE = 256 * 1024;
+
+    /**
+     * Number of chunks persisted before the entity manager is flushed. Should match the jdbc batch size configured
+     * in the persistence unit.
+     */
+    public static final int CHUNK_BATCH_SIZE = 16;
+
+    /**
+     * Number of bytes of chunk data held in memory before the entity manager is flushed.
+     */
+    public static final int CHUNK_BATCH_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Number of chunk ids reserved from the database sequence on each round trip.
+     */
+    public static final int CHUNK_ID_ALLOCATION_SIZE = 100;
+
+    /**
+     * Number of chunks loaded by a single query when a blob is read.
+     */
+    public static final int CHUNK_FETCH_SIZE = 4;
+
+    /**
+     * Number of chunk sizes loaded by a single query when a blob stream skips unread chunks.
+     */
+    public static final int CHUNK_SIZE_FETCH_SIZE = 500;
+
+    /**
+     * Number of blobs loaded by each query of a multi-get.
+     */
+    public static final int BLOB_FETCH_BATCH_SIZE = 100;
+
+    /**
+     * Number of blobs removed by each transaction when a container or a directory is cleared, or by a multi-delete.
+     */
+    public static final int DELETE_BATCH_SIZE = 500;
+
+    /**
+     * Number of rows loaded by each query while listing a container.
+     */
+    public static final int LIST_FETCH_SIZE = 1000;
+
+    /**
+     * Number of entries returned by a listing when the options do not set a maximum.
+     */
+    public static final int DEFAULT_MAX_LIST_RESULTS = 1000;
+
+    /**
+     * Maximum number of container ids cached by name.
+     */
+    public static final int CONTAINER_CACHE_SIZE = 1024;
+
+    /**
+     * Time after which a cached container id is looked up again, so containers deleted by other nodes are noticed.
+     */
+    public static final long CONTAINER_CACHE_EXPIRY_SECONDS = 60;
+
+    /**
+     * Number of times the switch of a blob to its new payload is attempted when concurrent writers conflict.
+     */
+    public static final int MAX_OVERWRITE_ATTEMPTS = 5;
+
+    public static final int DEFAULT_RECLAIM_DELAY_SECONDS = 60;
+
+    public static final int DEFAULT_BLOB_CACHE_MAX_BLOB_SIZE = 64 * 1024;
+
+    public static final long DEFAULT_BLOB_CACHE_EXPIRY_SECONDS = 60;
+
+    public static final int DEFAULT_ASYNC_THREADS = 8;
+
+    public static final int DEFAULT_ASYNC_QUEUE_SIZE = 256;
+
+    /**
+     * Maximum number of bytes held by the chunk buffers kept for reuse between uploads.
+     */
+    public static final long CHUNK_BUFFER_POOL_BYTES = 2L * CHUNK_BATCH_BYTES;
+
+    /**
+     * Deflate level used to compress chunks. Favours speed, since chunks are compressed while the upload is streamed.
+     */
+    public static final int COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+
+    /**
+     * Whether blob streams load their next chunks in the background using the user executor. Defaults to false.
+     */
+    public static final String PROPERTY_READ_AHEAD = "jclouds.jdbc.read-ahead";
+
+    /**
+     * Size of the chunks blobs are split into, unless the container defines its own. Defaults to
+     * {@link #DEFAULT_CHUNK_SIZE}.
+     */
+    public static final String PROPERTY_CHUNK_SIZE = "jclouds.jdbc.chunk-size";
+
+    /**
+     * Payloads up to this size are stored in the payload row instead of the chunk table. Defaults to
+     * {@link #DEFAULT_INLINE_THRESHOLD}, must not exceed {@link #MAX_INLINE_SIZE}. Zero disables inline payloads.
+     */
+    public static final String PROPERTY_INLINE_THRESHOLD = "jclouds.jdbc.inline-threshold";
+
+    /**
+     * Whether chunks holding the same data are stored once and shared by the payloads containing it. Chunks are
+     * matched by the SHA-256 of their data. Defaults to false.
+     */
+    public static final String PROPERTY_DEDUPLICATION = "jclouds.jdbc.deduplication";
+
+    /**
+     * Whether chunks are compressed with Deflate, unless the container defines its own setting. Chunks that do not
+     * shrink are stored as is. Defaults to false.
+     */
+    public static final String PROPERTY_COMPRESSION = "jclouds.jdbc.compression";
+
+    /**
+     * Seconds after which the payload replaced by an overwrite is deleted, so that streams opened on the previous
+     * content can complete. The reclaim time is stored with the payload, and expired payloads are deleted by the
+     * scheduler threads, or right away when no scheduler is bound. Removed blobs and blobs replaced by a copy release
+     * their content at once. Defaults to {@link #DEFAULT_RECLAIM_DELAY_SECONDS}.
+     */
+    public static final String PROPERTY_RECLAIM_DELAY = "jclouds.jdbc.reclaim-delay";
+
+    /**
+     * Duration in milliseconds above which a blob store operation is logged as a warning. Zero, the default, disables
+     * the log.
+     */
+    public static final String PROPERTY_SLOW_OPERATION_THRESHOLD = "jclouds.jdbc.slow-operation-threshold";
+
+    /**
+     * Whether the metrics of the provider are registered in the platform MBean server. Defaults to true.
+     */
+    public static final String PROPERTY_JMX = "jclouds.jdbc.jmx";
+
+    /**
+     * Number of bytes of blob content kept in memory by the blob cache. Zero, the default, disables the cache.
+     */
+    public static final String PROPERTY_BLOB_CACHE_SIZE = "jclouds.jdbc.blob-cache-size";
+
+    /**
+     * Size of the largest blob kept by the blob cache. Defaults to {@link #DEFAULT_BLOB_CACHE_MAX_BLOB_SIZE}.
+     */
+    public static final String PROPERTY_BLOB_CACHE_MAX_BLOB_SIZE = "jclouds.jdbc.blob-cache-max-blob-size";
+
+    /**
+     * Seconds after which a cached blob is read again, so that writes made by other nodes are seen. Defaults to
+     * {@link #DEFAULT_BLOB_CACHE_EXPIRY_SECONDS}.
+     */
+    public static final String PROPERTY_BLOB_CACHE_EXPIRY = "jclouds.jdbc.blob-cache-expiry";
+
+    /**
+     * Number of threads running the operations of the asynchronous storage strategy. Should not exceed the size of
+     * the connection pool. Defaults to {@link #DEFAULT_ASYNC_THREADS}.
+     */
+    public static final String PROPERTY_ASYNC_THREADS = "jclouds.jdbc.async-threads";
+
+    /**
+     * Number of asynchronous operations waiting for a thread before submitting blocks the caller. Defaults to
+     * {@link #DEFAULT_ASYNC_QUEUE_SIZE}.
+     */
+    public static final String PROPERTY_ASYNC_QUEUE_SIZE = "jclouds.jdbc.async-queue-size";
+
     private JdbcConstants() {
         throw new AssertionError("Intentionally Unimplemented");
     }
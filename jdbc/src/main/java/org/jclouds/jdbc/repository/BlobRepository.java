@@ -16,14 +16,22 @@
  */
 package org.jclouds.jdbc.repository;
 
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
+import org.jclouds.blobstore.domain.BlobAccess;
 import org.jclouds.jdbc.entity.BlobEntity;
 import org.jclouds.jdbc.entity.BlobEntityPK;
+import org.jclouds.jdbc.entity.BlobSummary;
+import org.jclouds.jdbc.entity.ChunkEntity;
 import org.jclouds.jdbc.entity.ContainerEntity;
+import org.jclouds.jdbc.entity.PayloadEntity;
+import org.jclouds.jdbc.util.KeyRanges;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import java.util.List;
 
 @Singleton
@@ -42,13 +50,267 @@ public class BlobRepository extends GenericRepository<BlobEntity, BlobEntityPK>
                 .getResultList();
     }
 
-   public List<BlobEntity> findBlobsByDirectory(ContainerEntity containerEntity, String directory) {
+   /**
+    * Checks whether a blob exists without loading it.
+    */
+   public boolean blobExists(ContainerEntity containerEntity, String key) {
+      return !entityManager.get().createQuery("SELECT b.key FROM " + entityClass.getName() + " b "
+            + "WHERE b.containerEntity = :containerEntity AND b.key = :key", String.class)
+            .setParameter("containerEntity", containerEntity)
+            .setParameter("key", key)
+            .getResultList().isEmpty();
+   }
+
+   /**
+    * Finds the blobs with the given keys with a single query.
+    *
+    * @return the blobs found, in no particular order
+    */
+   public List<BlobEntity> findBlobsByKeys(ContainerEntity containerEntity, List<String> keys) {
+      if (keys.isEmpty()) {
+         return ImmutableList.of();
+      }
       return entityManager.get().createQuery("SELECT b FROM " + entityClass.getName() + " b "
-            + "WHERE b.containerEntity = :containerEntity AND b.key != :directoryName AND b.key LIKE :directoryLike ", entityClass)
+            + "WHERE b.containerEntity = :containerEntity AND b.key IN :keys", entityClass)
+            .setParameter("containerEntity", containerEntity)
+            .setParameter("keys", keys)
+            .getResultList();
+   }
+
+   /**
+    * Finds the key and the payload id of the blobs with the given keys, without loading the blobs.
+    *
+    * @return rows of {key, payload id} for the blobs found
+    */
+   public List<Object[]> findPayloadIdsByKeys(ContainerEntity containerEntity, List<String> keys) {
+      if (keys.isEmpty()) {
+         return ImmutableList.of();
+      }
+      return entityManager.get().createQuery("SELECT b.key, p.id FROM " + entityClass.getName() + " b "
+            + "LEFT JOIN b.payload p WHERE b.containerEntity = :containerEntity AND b.key IN :keys", Object[].class)
             .setParameter("containerEntity", containerEntity)
-            .setParameter("directoryName", directory)
-            .setParameter("directoryLike", directory + "%")
+            .setParameter("keys", keys)
             .getResultList();
    }
 
+   /**
+    * Finds the access of a blob without loading it.
+    *
+    * @return the blob access, or null if the blob does not exist
+    */
+   public BlobAccess findBlobAccess(ContainerEntity containerEntity, String key) {
+      List<BlobAccess> result = entityManager.get().createQuery("SELECT b.blobAccess FROM " + entityClass.getName()
+            + " b WHERE b.containerEntity = :containerEntity AND b.key = :key", BlobAccess.class)
+            .setParameter("containerEntity", containerEntity)
+            .setParameter("key", key)
+            .getResultList();
+      return result.isEmpty() ? null : result.get(0);
+   }
+
+   /**
+    * Finds the blobs under a prefix with a single range scan of the (container, key) index.
+    *
+    * @param prefix    key prefix, usually a directory name followed by the separator
+    * @param recursive whether blobs below a further separator are included
+    */
+   public List<BlobEntity> findBlobsByPrefix(ContainerEntity containerEntity, String prefix, boolean recursive) {
+      StringBuilder jpql = new StringBuilder("SELECT b FROM " + entityClass.getName() + " b "
+            + "WHERE b.containerEntity = :containerEntity");
+      appendScope(jpql, prefix, recursive);
+      jpql.append(" ORDER BY b.key");
+      TypedQuery<BlobEntity> query = entityManager.get().createQuery(jpql.toString(), entityClass)
+            .setParameter("containerEntity", containerEntity);
+      bindScope(query, prefix, recursive);
+      return query.getResultList();
+   }
+
+   /**
+    * Finds the key and the payload id of the first blobs under a prefix, without loading the blobs.
+    *
+    * @param prefix    key prefix, or null for the whole container
+    * @param recursive whether blobs below a further delimiter and directory blobs are included
+    * @param limit     maximum number of rows returned
+    * @return rows of {key, payload id}
+    */
+   public List<Object[]> findBlobKeysByPrefix(ContainerEntity containerEntity, String prefix, boolean recursive,
+         int limit) {
+      StringBuilder jpql = new StringBuilder("SELECT b.key, p.id FROM " + entityClass.getName() + " b "
+            + "LEFT JOIN b.payload p WHERE b.containerEntity = :containerEntity");
+      appendScope(jpql, prefix, recursive);
+      if (!recursive) {
+         jpql.append(" AND b.directory = false");
+      }
+      TypedQuery<Object[]> query = entityManager.get().createQuery(jpql.toString(), Object[].class)
+            .setParameter("containerEntity", containerEntity)
+            .setMaxResults(limit);
+      bindScope(query, prefix, recursive);
+      return query.getResultList();
+   }
+
+   /**
+    * Counts the blobs under a prefix without loading them.
+    *
+    * @param prefix    key prefix, or null for the whole container
+    * @param recursive whether blobs below a further delimiter are counted
+    */
+   public long countBlobs(ContainerEntity containerEntity, String prefix, boolean recursive) {
+      StringBuilder jpql = new StringBuilder("SELECT COUNT(b) FROM " + entityClass.getName() + " b "
+            + "WHERE b.containerEntity = :containerEntity");
+      appendScope(jpql, prefix, recursive);
+      TypedQuery<Long> query = entityManager.get().createQuery(jpql.toString(), Long.class)
+            .setParameter("containerEntity", containerEntity);
+      bindScope(query, prefix, recursive);
+      return query.getSingleResult();
+   }
+
+   /**
+    * Finds the next page of blob summaries in key order, starting after a given key.
+    *
+    * @param prefix    key prefix, or null for the whole container
+    * @param fromKey   key the page starts from, or null to start at the first key
+    * @param inclusive whether a blob with key {@code fromKey} is included
+    * @param limit     maximum number of summaries returned
+    */
+   public List<BlobSummary> findBlobSummaries(ContainerEntity containerEntity, String prefix, String fromKey,
+         boolean inclusive, int limit) {
+      StringBuilder jpql = new StringBuilder("SELECT NEW " + BlobSummary.class.getName()
+            + "(b.key, b.directory, b.etag, b.creationDate, b.lastModified, b.size) FROM " + entityClass.getName()
+            + " b WHERE b.containerEntity = :containerEntity");
+      appendScope(jpql, prefix, true);
+      if (fromKey != null) {
+         jpql.append(inclusive ? " AND b.key >= :fromKey" : " AND b.key > :fromKey");
+      }
+      jpql.append(" ORDER BY b.key");
+      TypedQuery<BlobSummary> query = entityManager.get().createQuery(jpql.toString(), BlobSummary.class)
+            .setParameter("containerEntity", containerEntity)
+            .setMaxResults(limit);
+      bindScope(query, prefix, true);
+      if (fromKey != null) {
+         query.setParameter("fromKey", fromKey);
+      }
+      return query.getResultList();
+   }
+
+   /**
+    * Finds the next page of blob keys in key order, starting after a given key.
+    *
+    * @param afterKey key the page starts after, or null to start at the first key
+    * @param limit    maximum number of keys returned
+    */
+   public List<String> findBlobKeys(ContainerEntity containerEntity, String afterKey, int limit) {
+      StringBuilder jpql = new StringBuilder("SELECT b.key FROM " + entityClass.getName() + " b "
+            + "WHERE b.containerEntity = :containerEntity");
+      if (afterKey != null) {
+         jpql.append(" AND b.key > :afterKey");
+      }
+      jpql.append(" ORDER BY b.key");
+      TypedQuery<String> query = entityManager.get().createQuery(jpql.toString(), String.class)
+            .setParameter("containerEntity", containerEntity)
+            .setMaxResults(limit);
+      if (afterKey != null) {
+         query.setParameter("afterKey", afterKey);
+      }
+      return query.getResultList();
+   }
+
+   /**
+    * Deletes blobs together with their user metadata and payloads, issuing one statement per table instead of one
+    * per row. Chunks are deleted once no payload references them anymore.
+    *
+    * @param keys       keys of the blobs to delete
+    * @param payloadIds ids of the payloads of these blobs
+    * @return the number of blobs deleted
+    */
+   public int deleteBlobs(ContainerEntity containerEntity, List<String> keys, List<Long> payloadIds) {
+      if (keys.isEmpty()) {
+         return 0;
+      }
+      EntityManager em = entityManager.get();
+      if (!payloadIds.isEmpty()) {
+         // Chunks may be shared by several payloads, possibly in this same page
+         String payloadIdList = placeholders(1, payloadIds.size());
+         Query releaseChunks = em.createNativeQuery("UPDATE " + ChunkEntity.class.getSimpleName()
+               + " SET " + ChunkEntity.REF_COUNT_COLUMN + " = " + ChunkEntity.REF_COUNT_COLUMN + " - "
+               + "(SELECT COUNT(*) FROM " + PayloadEntity.CHUNKS_TABLE + " pc WHERE pc.chunk_id = "
+               + ChunkEntity.class.getSimpleName() + ".id AND pc.payload_id IN (" + payloadIdList + ")) "
+               + "WHERE id IN (SELECT chunk_id FROM " + PayloadEntity.CHUNKS_TABLE
+               + " WHERE payload_id IN (" + payloadIdList + "))");
+         setParameters(releaseChunks, 1, payloadIds).executeUpdate();
+         em.createQuery("DELETE FROM " + ChunkEntity.class.getName() + " c WHERE c.refCount <= 0 AND c.id IN "
+               + "(SELECT ch FROM " + PayloadEntity.class.getName() + " p JOIN p.chunks ch WHERE p.id IN :payloadIds)")
+               .setParameter("payloadIds", payloadIds)
+               .executeUpdate();
+         Query deleteChunkIds = em.createNativeQuery("DELETE FROM " + PayloadEntity.CHUNKS_TABLE
+               + " WHERE payload_id IN (" + placeholders(1, payloadIds.size()) + ")");
+         setParameters(deleteChunkIds, 1, payloadIds).executeUpdate();
+      }
+      Query deleteMetadata = em.createNativeQuery("DELETE FROM " + BlobEntity.USER_METADATA_TABLE
+            + " WHERE container_id = ?1 AND blob_key IN (" + placeholders(2, keys.size()) + ")")
+            .setParameter(1, containerEntity.getId());
+      setParameters(deleteMetadata, 2, keys).executeUpdate();
+      int deleted = em.createQuery("DELETE FROM " + entityClass.getName() + " b "
+            + "WHERE b.containerEntity = :containerEntity AND b.key IN :keys")
+            .setParameter("containerEntity", containerEntity)
+            .setParameter("keys", keys)
+            .executeUpdate();
+      if (!payloadIds.isEmpty()) {
+         em.createQuery("DELETE FROM " + PayloadEntity.class.getName() + " p WHERE p.id IN :payloadIds")
+               .setParameter("payloadIds", payloadIds)
+               .executeUpdate();
+      }
+      return deleted;
+   }
+
+   /**
+    * Restricts a query to the keys starting with a prefix. The prefix is matched as the key range
+    * [prefix, successor(prefix)) so it can be resolved with an index seek.
+    */
+   private static void appendScope(StringBuilder jpql, String prefix, boolean recursive) {
+      if (prefix != null) {
+         jpql.append(" AND b.key >= :prefixStart");
+         if (KeyRanges.successor(prefix) != null) {
+            jpql.append(" AND b.key < :prefixEnd");
+         }
+      }
+      if (!recursive) {
+         jpql.append(" AND b.key NOT LIKE :nested ESCAPE '!'");
+      }
+   }
+
+   private static void bindScope(Query query, String prefix, boolean recursive) {
+      if (prefix != null) {
+         query.setParameter("prefixStart", prefix);
+         String prefixEnd = KeyRanges.successor(prefix);
+         if (prefixEnd != null) {
+            query.setParameter("prefixEnd", prefixEnd);
+         }
+      }
+      if (!recursive) {
+         String escapedPrefix = prefix == null ? "" : escapeLike(prefix);
+         query.setParameter("nested", escapedPrefix + "%/%");
+      }
+   }
+
+   private static String escapeLike(String value) {
+      return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+   }
+
+   private static String placeholders(int first, int count) {
+      StringBuilder placeholders = new StringBuilder();
+      for (int i = 0; i < count; i++) {
+         if (i > 0) {
+            placeholders.append(", ");
+         }
+         placeholders.append('?').append(first + i);
+      }
+      return placeholders.toString();
+   }
+
+   private static Query setParameters(Query query, int first, List<?> values) {
+      for (int i = 0; i < values.size(); i++) {
+         query.setParameter(first + i, values.get(i));
+      }
+      return query;
+   }
+
 }
@@ -16,12 +16,26 @@
  */
 package org.jclouds.jdbc.repository;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import org.jclouds.jdbc.entity.ChunkEntity;
+import org.jclouds.jdbc.entity.PayloadEntity;
+import org.jclouds.jdbc.reference.JdbcConstants;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Singleton
 public class ChunkRepository extends GenericRepository<ChunkEntity, Long> {
@@ -31,4 +45,167 @@ public class ChunkRepository extends GenericRepository<ChunkEntity, Long> {
       super(entityManager);
    }
 
+   /**
+    * Persists a batch of chunks with a single flush and detaches them, so the caller can reuse their buffers once
+    * this method returns.
+    *
+    * @return the ids of the chunks in the same order
+    */
+   public List<Long> createAll(List<ChunkEntity> chunks) {
+      EntityManager em = entityManager.get();
+      for (ChunkEntity chunk : chunks) {
+         em.persist(chunk);
+      }
+      em.flush();
+      ImmutableList.Builder<Long> ids = ImmutableList.builder();
+      for (ChunkEntity chunk : chunks) {
+         ids.add(chunk.getId());
+         em.detach(chunk);
+      }
+      return ids.build();
+   }
+
+   /**
+    * Finds the ids of a range of the chunks of a payload, using the chunk index column instead of loading the
+    * whole chunk list.
+    *
+    * @param first the index of the first chunk
+    * @param last  the index of the last chunk, inclusive
+    * @return the chunk ids, in payload order
+    */
+   public List<Long> findChunkIds(Long payloadId, int first, int last) {
+      return entityManager.get()
+            .createQuery("SELECT c FROM " + PayloadEntity.class.getName() + " p JOIN p.chunks c "
+                  + "WHERE p.id = :payloadId AND INDEX(c) BETWEEN :first AND :last ORDER BY INDEX(c)", Long.class)
+            .setParameter("payloadId", payloadId)
+            .setParameter("first", first)
+            .setParameter("last", last)
+            .getResultList();
+   }
+
+   /**
+    * Loads several chunks with a single query.
+    *
+    * @return the chunks found, in the order of the given ids
+    */
+   public List<ChunkEntity> findChunksByIds(List<Long> ids) {
+      if (ids.isEmpty()) {
+         return ImmutableList.of();
+      }
+      List<ChunkEntity> chunks = entityManager.get()
+            .createQuery("SELECT c FROM " + entityClass.getName() + " c WHERE c.id IN :ids", entityClass)
+            .setParameter("ids", ids)
+            .getResultList();
+      Map<Long, ChunkEntity> chunksById = Maps.newHashMapWithExpectedSize(chunks.size());
+      for (ChunkEntity chunk : chunks) {
+         chunksById.put(chunk.getId(), chunk);
+      }
+      ImmutableList.Builder<ChunkEntity> result = ImmutableList.builder();
+      for (Long id : ids) {
+         ChunkEntity chunk = chunksById.get(id);
+         if (chunk != null) {
+            result.add(chunk);
+         }
+      }
+      return result.build();
+   }
+
+   /**
+    * Loads the size of several chunks without loading their data.
+    *
+    * @return the size of each chunk found, by chunk id
+    */
+   public Map<Long, Integer> findChunkSizes(List<Long> ids) {
+      if (ids.isEmpty()) {
+         return ImmutableMap.of();
+      }
+      List<Object[]> rows = entityManager.get()
+            .createQuery("SELECT c.id, c.size FROM " + entityClass.getName() + " c WHERE c.id IN :ids", Object[].class)
+            .setParameter("ids", ids)
+            .getResultList();
+      ImmutableMap.Builder<Long, Integer> sizes = ImmutableMap.builder();
+      for (Object[] row : rows) {
+         sizes.put((Long) row[0], ((Number) row[1]).intValue());
+      }
+      return sizes.build();
+   }
+
+   /**
+    * Finds the chunks holding data with the given hashes, without loading their data.
+    *
+    * @return the ids of the chunks found, by hash and in the order they were stored
+    */
+   public ListMultimap<String, Long> findChunkIdsByHashes(Collection<String> hashes) {
+      ImmutableListMultimap.Builder<String, Long> ids = ImmutableListMultimap.builder();
+      if (hashes.isEmpty()) {
+         return ids.build();
+      }
+      List<Object[]> rows = entityManager.get()
+            .createQuery("SELECT c.hash, c.id FROM " + entityClass.getName() + " c WHERE c.hash IN :hashes "
+                  + "ORDER BY c.id",
+                  Object[].class)
+            .setParameter("hashes", hashes)
+            .getResultList();
+      for (Object[] row : rows) {
+         ids.put((String) row[0], (Long) row[1]);
+      }
+      return ids.build();
+   }
+
+   /**
+    * Adds a reference to an existing chunk.
+    *
+    * @return false if the chunk has been released by all its payloads in the meantime, and can not be reused
+    */
+   public boolean acquire(Long id) {
+      return entityManager.get()
+            .createQuery("UPDATE " + entityClass.getName() + " c SET c.refCount = c.refCount + 1 "
+                  + "WHERE c.id = :id AND c.refCount > 0")
+            .setParameter("id", id)
+            .executeUpdate() == 1;
+   }
+
+   /**
+    * Adds one reference to each of the given chunks, as many times as a chunk id occurs, so they can be shared by
+    * another payload. The chunks must be referenced by a payload read in the current transaction.
+    */
+   public void retain(List<Long> ids) {
+      addReferences(HashMultiset.create(ids), 1);
+   }
+
+   /**
+    * Removes one reference to each of the given chunks, as many times as a chunk id occurs, and deletes the chunks
+    * that are no longer referenced. Data is never loaded.
+    */
+   public void release(List<Long> ids) {
+      Multiset<Long> references = HashMultiset.create(ids);
+      addReferences(references, -1);
+      for (List<Long> batch : Iterables.partition(references.elementSet(), JdbcConstants.DELETE_BATCH_SIZE)) {
+         entityManager.get()
+               .createQuery("DELETE FROM " + entityClass.getName() + " c WHERE c.id IN :ids AND c.refCount <= 0")
+               .setParameter("ids", batch)
+               .executeUpdate();
+      }
+   }
+
+   /**
+    * Updates the reference counts with one statement per batch of chunks whose count changes by the same amount.
+    */
+   private void addReferences(Multiset<Long> references, int sign) {
+      ListMultimap<Integer, Long> idsByCount = ArrayListMultimap.create();
+      for (Multiset.Entry<Long> entry : references.entrySet()) {
+         idsByCount.put(entry.getCount(), entry.getElement());
+      }
+      for (Map.Entry<Integer, Collection<Long>> entry : idsByCount.asMap().entrySet()) {
+         for (List<Long> batch : Iterables.partition(entry.getValue(), JdbcConstants.DELETE_BATCH_SIZE)) {
+            entityManager.get()
+                  .createQuery("UPDATE " + entityClass.getName() + " c SET c.refCount = c.refCount + :delta "
+                        + "WHERE c.id IN :ids")
+                  .setParameter("delta", sign * entry.getKey())
+                  .setParameter("ids", batch)
+                  .executeUpdate();
+         }
+      }
+   }
+
 }
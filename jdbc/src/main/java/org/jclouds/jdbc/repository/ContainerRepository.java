@@ -16,18 +16,33 @@
  */
 package org.jclouds.jdbc.repository;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import org.jclouds.jdbc.entity.ContainerEntity;
+import org.jclouds.jdbc.reference.JdbcConstants;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Singleton
 public class ContainerRepository extends GenericRepository<ContainerEntity, Long> {
 
+   /**
+    * Ids of the containers recently looked up by name. Entries are removed when this repository creates or deletes
+    * a container with that name, and expire so that changes made by other nodes are eventually seen.
+    */
+   private final Cache<String, Long> containerIds = CacheBuilder.newBuilder()
+         .maximumSize(JdbcConstants.CONTAINER_CACHE_SIZE)
+         .expireAfterWrite(JdbcConstants.CONTAINER_CACHE_EXPIRY_SECONDS, TimeUnit.SECONDS)
+         .recordStats()
+         .build();
+
    @Inject
    private ContainerRepository(Provider<EntityManager> entityManager) {
       super(entityManager);
@@ -43,6 +58,54 @@ public class ContainerRepository extends GenericRepository<ContainerEntity, Long
       }
    }
 
+   /**
+    * Finds the id of a container by name, using the cached id when there is one.
+    *
+    * @return the id of the container, or null if there is no container with that name
+    */
+   public Long findContainerIdByName(String name) {
+      Long id = containerIds.getIfPresent(name);
+      if (id == null) {
+         ContainerEntity containerEntity = findContainerByName(name);
+         if (containerEntity != null) {
+            id = containerEntity.getId();
+            containerIds.put(name, id);
+         }
+      }
+      return id;
+   }
+
+   /**
+    * Finds a container by name, using the cached id of the container when there is one. The returned instance may
+    * be lazily fetched, so it is meant to be used as an association or a query parameter.
+    *
+    * @return a reference to the container, or null if there is no container with that name
+    */
+   public ContainerEntity findContainerReferenceByName(String name) {
+      Long id = findContainerIdByName(name);
+      return id == null ? null : getReference(id);
+   }
+
+   /**
+    * Removes the cached id of a container.
+    */
+   public void invalidate(String name) {
+      containerIds.invalidate(name);
+   }
+
+   /**
+    * @return hit and miss statistics of the container id cache
+    */
+   public CacheStats containerCacheStats() {
+      return containerIds.stats();
+   }
+
+   @Override
+   public ContainerEntity create(ContainerEntity containerEntity) {
+      invalidate(containerEntity.getName());
+      return super.create(containerEntity);
+   }
+
    public List<ContainerEntity> findAllContainers() {
       return entityManager.get().createQuery("SELECT c FROM " + entityClass.getName() + " c", entityClass)
             .getResultList();
@@ -51,8 +114,9 @@ public class ContainerRepository extends GenericRepository<ContainerEntity, Long
    public void deleteContainerByName(String name) {
       ContainerEntity containerEntity = findContainerByName(name);
       if (containerEntity != null) {
-         delete(findContainerByName(name));
+         delete(containerEntity);
       }
+      invalidate(name);
    }
 
 }
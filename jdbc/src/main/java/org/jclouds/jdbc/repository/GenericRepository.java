@@ -44,6 +44,14 @@ public abstract class GenericRepository<T, PK extends Serializable> {
       return entityManager.get().find(entityClass, id);
    }
 
+   /**
+    * Returns an instance whose state may be lazily fetched, so that it can be used as an association or a query
+    * parameter without loading it.
+    */
+   public T getReference(PK id) {
+      return entityManager.get().getReference(entityClass, id);
+   }
+
    public T save(T entity) {
       return entityManager.get().merge(entity);
    }
@@ -52,4 +60,12 @@ public abstract class GenericRepository<T, PK extends Serializable> {
       entityManager.get().remove(entityManager.get().contains(entity) ? entity : entityManager.get().merge(entity));
    }
 
+   /**
+    * Writes the pending changes, for instance so that a deleted entity can be replaced by a new one with the same id
+    * in the same transaction.
+    */
+   public void flush() {
+      entityManager.get().flush();
+   }
+
 }
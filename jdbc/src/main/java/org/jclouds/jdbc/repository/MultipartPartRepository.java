@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.repository;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import org.jclouds.jdbc.entity.MultipartPartEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import java.util.List;
+
+@Singleton
+public class MultipartPartRepository extends GenericRepository<MultipartPartEntity, Long> {
+
+   @Inject
+   private MultipartPartRepository(Provider<EntityManager> entityManager) {
+      super(entityManager);
+   }
+
+   public MultipartPartEntity findPart(String uploadId, int partNumber) {
+      try {
+         return entityManager.get().createQuery("SELECT p FROM " + entityClass.getName() + " p "
+               + "WHERE p.uploadId = :uploadId AND p.partNumber = :partNumber", entityClass)
+               .setParameter("uploadId", uploadId)
+               .setParameter("partNumber", partNumber)
+               .getSingleResult();
+      } catch (NoResultException e) {
+         return null;
+      }
+   }
+
+   /**
+    * @return the parts of an upload, by part number
+    */
+   public List<MultipartPartEntity> findParts(String uploadId) {
+      return entityManager.get().createQuery("SELECT p FROM " + entityClass.getName() + " p "
+            + "WHERE p.uploadId = :uploadId ORDER BY p.partNumber", entityClass)
+            .setParameter("uploadId", uploadId)
+            .getResultList();
+   }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.repository;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import org.jclouds.jdbc.entity.PayloadEntity;
+
+import javax.persistence.EntityManager;
+import java.util.Date;
+import java.util.List;
+
+@Singleton
+public class PayloadRepository extends GenericRepository<PayloadEntity, Long> {
+
+   @Inject
+   private PayloadRepository(Provider<EntityManager> entityManager) {
+      super(entityManager);
+   }
+
+   /**
+    * Finds the payloads replaced by an overwrite whose reclaim time has passed.
+    *
+    * @param limit the maximum number of ids returned
+    * @return the ids of the payloads, oldest reclaim time first
+    */
+   public List<Long> findReclaimablePayloadIds(Date now, int limit) {
+      return entityManager.get().createQuery("SELECT p.id FROM " + entityClass.getName() + " p "
+            + "WHERE p.reclaimAfter <= :now ORDER BY p.reclaimAfter", Long.class)
+            .setParameter("now", now)
+            .setMaxResults(limit)
+            .getResultList();
+   }
+
+}
@@ -16,34 +16,69 @@
  */
 package org.jclouds.jdbc.service;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+import com.google.common.math.LongMath;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.persist.Transactional;
+import org.jclouds.Constants;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
+import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.ContainerAccess;
-import org.jclouds.io.ByteStreams2;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.io.ContentMetadata;
+import org.jclouds.io.Payload;
 import org.jclouds.jdbc.conversion.BlobToBlobEntity;
 import org.jclouds.jdbc.entity.BlobEntity;
 import org.jclouds.jdbc.entity.BlobEntityPK;
+import org.jclouds.jdbc.entity.BlobSummary;
+import org.jclouds.jdbc.entity.ChunkCodec;
 import org.jclouds.jdbc.entity.ChunkEntity;
 import org.jclouds.jdbc.entity.ContainerEntity;
+import org.jclouds.jdbc.entity.MultipartPartEntity;
+import org.jclouds.jdbc.entity.MultipartUploadEntity;
 import org.jclouds.jdbc.entity.PayloadEntity;
+import org.jclouds.jdbc.metrics.JdbcMetrics;
 import org.jclouds.jdbc.reference.JdbcConstants;
 import org.jclouds.jdbc.repository.BlobRepository;
 import org.jclouds.jdbc.repository.ChunkRepository;
 import org.jclouds.jdbc.repository.ContainerRepository;
-import org.jclouds.jdbc.util.JdbcInputStream;
+import org.jclouds.jdbc.repository.MultipartPartRepository;
+import org.jclouds.jdbc.repository.MultipartRepository;
+import org.jclouds.jdbc.repository.PayloadRepository;
+import org.jclouds.jdbc.util.ChunkBufferPool;
+import org.jclouds.jdbc.util.ChunkCompression;
+import org.jclouds.logging.Logger;
+import org.jclouds.util.Closeables2;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.persistence.PersistenceException;
+
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.io.BaseEncoding.base16;
 
 @Singleton
@@ -55,19 +90,73 @@ public class JdbcService {
    private final BlobRepository blobRepository;
    private final ChunkRepository chunkRepository;
    private final BlobToBlobEntity blobToBlobEntity;
+   private final ChunkBufferPool bufferPool;
+   private final MultipartRepository multipartRepository;
+   private final MultipartPartRepository multipartPartRepository;
+   private final PayloadRepository payloadRepository;
+   private final JdbcMetrics metrics;
+
+   @Resource
+   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_CHUNK_SIZE)
+   private int defaultChunkSize = JdbcConstants.DEFAULT_CHUNK_SIZE;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_INLINE_THRESHOLD)
+   private int inlineThreshold = JdbcConstants.DEFAULT_INLINE_THRESHOLD;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_DEDUPLICATION)
+   private boolean deduplication = false;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_COMPRESSION)
+   private boolean compression = false;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_RECLAIM_DELAY)
+   private int reclaimDelay = JdbcConstants.DEFAULT_RECLAIM_DELAY_SECONDS;
+
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_SCHEDULER_THREADS)
+   private ListeningScheduledExecutorService scheduler;
 
    @Inject
    JdbcService(ContainerRepository containerRepository, BlobRepository blobRepository, ChunkRepository chunkRepository,
-         BlobToBlobEntity blobToBlobEntity) {
+         BlobToBlobEntity blobToBlobEntity, ChunkBufferPool bufferPool, MultipartRepository multipartRepository,
+         MultipartPartRepository multipartPartRepository, PayloadRepository payloadRepository, JdbcMetrics metrics) {
       this.containerRepository = containerRepository;
       this.blobRepository = blobRepository;
       this.chunkRepository = chunkRepository;
       this.blobToBlobEntity = blobToBlobEntity;
+      this.bufferPool = bufferPool;
+      this.multipartRepository = multipartRepository;
+      this.multipartPartRepository = multipartPartRepository;
+      this.payloadRepository = payloadRepository;
+      this.metrics = metrics;
+   }
+
+   @Transactional
+   public void createContainer(String containerName, ContainerAccess access, Integer chunkSize, Boolean compression) {
+      containerRepository.create(ContainerEntity.builder()
+            .name(containerName)
+            .containerAccess(access)
+            .chunkSize(chunkSize)
+            .compression(compression)
+            .build());
+   }
+
+   @Transactional
+   public void createContainer(String containerName, ContainerAccess access, Integer chunkSize) {
+      createContainer(containerName, access, chunkSize, null);
    }
 
    @Transactional
    public void createContainer(String containerName, ContainerAccess access) {
-      containerRepository.create(ContainerEntity.builder().name(containerName).containerAccess(access).build());
+      createContainer(containerName, access, null);
    }
 
    @Transactional
@@ -87,6 +176,12 @@ public class JdbcService {
 
    @Transactional
    public void deleteContainerByName(String containerName) {
+      ContainerEntity containerEntity = containerRepository.findContainerByName(containerName);
+      if (containerEntity != null) {
+         for (String uploadId : multipartRepository.findUploadIdsByContainer(containerEntity)) {
+            deleteUpload(multipartRepository.find(uploadId));
+         }
+      }
       containerRepository.deleteContainerByName(containerName);
    }
 
@@ -95,36 +190,161 @@ public class JdbcService {
       ContainerEntity containerEntity = containerRepository.findContainerByName(containerName);
       containerEntity.setContainerAccess(access);
       containerRepository.save(containerEntity);
+      containerRepository.invalidate(containerName);
+   }
+
+   /**
+    * @return hit and miss statistics of the cache of container ids used by blob operations
+    */
+   public CacheStats getContainerCacheStats() {
+      return containerRepository.containerCacheStats();
    }
 
    @Transactional
    public boolean blobExists(String containerName, String key) {
-      return findBlobById(containerName, key) != null;
+      ContainerEntity containerEntity = containerRepository.findContainerReferenceByName(containerName);
+      return containerEntity != null && blobRepository.blobExists(containerEntity, key);
    }
 
-   @Transactional(rollbackOn = IOException.class)
+   /**
+    * @return the access of the blob, or null if it does not exist
+    */
+   @Transactional
+   public BlobAccess findBlobAccessById(String containerName, String key) {
+      ContainerEntity containerEntity = containerRepository.findContainerReferenceByName(containerName);
+      return containerEntity == null ? null : blobRepository.findBlobAccess(containerEntity, key);
+   }
+
+   /**
+    * Stores a blob, replacing the blob with the same key if there is one. The chunks are written by a transaction
+    * of their own, during which the existing blob is neither locked nor modified, so readers keep seeing the
+    * previous content. A short transaction then points the blob to the new payload. Concurrent writers of the same
+    * key are detected by the version of the blob and retried, and the last one to commit wins. The replaced payload
+    * is reclaimed later, see {@link JdbcConstants#PROPERTY_RECLAIM_DELAY}.
+    *
+    * @throws IllegalArgumentException if the container does not exist
+    */
    public BlobEntity createOrModifyBlob(String containerName, Blob blob, BlobAccess blobAccess) throws IOException {
-      String key = blob.getMetadata().getName();
-      Date creationDate = null;
-      BlobEntity oldBlobEntity = findBlobById(containerName, key);
-      if (oldBlobEntity != null) {
-         creationDate = oldBlobEntity.getCreationDate();
-         deleteBlob(containerName, key);
+      ContainerEntity containerEntity = findContainerByName(containerName);
+      checkArgument(containerEntity != null, "container %s does not exist", containerName);
+      ContentMetadata contentMetadata = blob.getMetadata().getContentMetadata();
+      int chunkSize = chunkSize(containerEntity, contentMetadata.getContentLength());
+      StoredData storedData = storeData(blob.getPayload().openStream(), chunkSize, compression(containerEntity),
+            false);
+
+      PayloadSwap swap = null;
+      try {
+         checkIntegrity(contentMetadata, storedData.hash);
+         for (int attempt = 1; swap == null; attempt++) {
+            try {
+               swap = swapPayload(containerName, newBlobEntity(blob, blobAccess, chunkSize, storedData));
+            } catch (PersistenceException e) {
+               if (attempt == JdbcConstants.MAX_OVERWRITE_ATTEMPTS) {
+                  throw e;
+               }
+               logger.debug("<< concurrent write of %s/%s, retrying: %s", containerName, blob.getMetadata().getName(),
+                     e.getMessage());
+            }
+         }
+      } finally {
+         if (swap == null) {
+            releaseChunks(storedData.chunks);
+         }
       }
+      reclaimPayload(swap.previousPayloadId);
+      return swap.blobEntity;
+   }
+
+   private BlobEntity newBlobEntity(Blob blob, BlobAccess blobAccess, int chunkSize, StoredData storedData) {
       BlobEntity blobEntity = blobToBlobEntity.apply(blob);
-      blobEntity.getPayload().setChunks(storeData(blob.getPayload().openStream()));
-      blobEntity.setContainerEntity(containerRepository.findContainerByName(containerName));
-      blobEntity.setKey(key);
+      blobEntity.getPayload().setChunks(storedData.chunks);
+      blobEntity.getPayload().setChunkSize(chunkSize);
+      blobEntity.getPayload().setData(storedData.inlineData);
+      blobEntity.getPayload().setContentLength(storedData.length);
+      blobEntity.getPayload().setContentMD5(storedData.hash.asBytes());
+      blobEntity.setKey(blob.getMetadata().getName());
       blobEntity.setBlobAccess(blobAccess);
-      blobEntity.setCreationDate(creationDate);
+      blobEntity.setSize(storedData.length);
+      blobEntity.setEtag(base16().lowerCase().encode(storedData.hash.asBytes()));
+      return blobEntity;
+   }
+
+   /**
+    * Points the blob with the key of the given entity to its payload, or creates it. The blob keeps its creation
+    * date and its version is incremented, so the transaction fails if another writer updated the blob since it was
+    * read.
+    */
+   @Transactional
+   PayloadSwap swapPayload(String containerName, BlobEntity blobEntity) {
+      BlobEntity current = findBlobById(containerName, blobEntity.getKey());
+      if (current == null) {
+         blobEntity.setContainerEntity(containerRepository.findContainerReferenceByName(containerName));
+         return new PayloadSwap(blobRepository.create(blobEntity), null);
+      }
+      PayloadEntity previousPayload = current.getPayload();
+      if (previousPayload != null) {
+         // recorded with the swap, so the payload is still reclaimed if this node stops before the delay
+         previousPayload.setReclaimAfter(new Date(System.currentTimeMillis()
+               + TimeUnit.SECONDS.toMillis(Math.max(reclaimDelay, 0))));
+      }
+      current.setPayload(payloadRepository.create(blobEntity.getPayload()));
+      current.setUserMetadata(blobEntity.getUserMetadata());
+      current.setBlobAccess(blobEntity.getBlobAccess() != null ? blobEntity.getBlobAccess() : BlobAccess.PRIVATE);
+      current.setSize(blobEntity.getSize());
+      current.setEtag(blobEntity.getEtag());
+      current.setDirectory(false);
+      current.setLastModified(new Date());
+      return new PayloadSwap(current, previousPayload == null ? null : previousPayload.getId());
+   }
+
+   /**
+    * Deletes a payload replaced by an overwrite, and releases its chunks. When a scheduler is available and the
+    * reclaim delay is positive, the payload is left for {@link #reclaimPayloads} instead, so that streams opened on it
+    * can complete.
+    */
+   private void reclaimPayload(Long payloadId) {
+      if (payloadId != null && (scheduler == null || reclaimDelay <= 0)) {
+         deletePayload(payloadId);
+      }
+   }
+
+   /**
+    * Deletes the replaced payloads whose reclaim time has passed, and releases their chunks. This includes the
+    * payloads left by a previous run of the provider, since the reclaim time is stored with the payload.
+    *
+    * @return the number of payloads deleted
+    */
+   public int reclaimPayloads() {
+      Date now = new Date();
+      int reclaimed = 0;
+      List<Long> payloadIds;
+      do {
+         payloadIds = findReclaimablePayloadIds(now);
+         for (Long payloadId : payloadIds) {
+            deletePayload(payloadId);
+         }
+         reclaimed += payloadIds.size();
+      } while (payloadIds.size() == JdbcConstants.DELETE_BATCH_SIZE);
+      return reclaimed;
+   }
+
+   @Transactional
+   List<Long> findReclaimablePayloadIds(Date now) {
+      return payloadRepository.findReclaimablePayloadIds(now, JdbcConstants.DELETE_BATCH_SIZE);
+   }
 
-      HashCode hash = ByteStreams2.hashAndClose(blob.getPayload().openStream(), Hashing.md5());
-      blobEntity.setEtag(base16().lowerCase().encode(hash.asBytes()));
-      blobEntity.getPayload().setContentMD5(hash.asBytes());
+   @Transactional
+   void deletePayload(Long payloadId) {
+      PayloadEntity payload = payloadRepository.find(payloadId);
+      if (payload != null) {
+         chunkRepository.release(payload.getChunks());
+         payloadRepository.delete(payload);
+      }
+   }
 
-      BlobEntity result = blobRepository.create(blobEntity);
-      checkIntegrity(blob, result);
-      return result;
+   @Transactional
+   void releaseChunks(List<Long> chunks) {
+      chunkRepository.release(chunks);
    }
 
    @Transactional
@@ -134,7 +354,7 @@ public class JdbcService {
             .directory(true)
             .payload(PayloadEntity.builder().contentType("application/directory").build())
             .build();
-      blobEntity.setContainerEntity(containerRepository.findContainerByName(containerName));
+      blobEntity.setContainerEntity(containerRepository.findContainerReferenceByName(containerName));
       blobEntity.setKey(blob.getMetadata().getName());
       blobEntity.setBlobAccess(blobAccess);
       blobEntity.setEtag(DIRECTORY_MD5);
@@ -146,15 +366,26 @@ public class JdbcService {
       return createDirectoryBlob(containerName, blob, null);
    }
 
-   @Transactional(rollbackOn = IOException.class)
    public BlobEntity createOrModifyBlob(String containerName, Blob blob) throws IOException {
       return createOrModifyBlob(containerName, blob, null);
    }
 
    @Transactional
    public BlobEntity findBlobById(String containerName, String key) {
-      ContainerEntity containerEntity = containerRepository.findContainerByName(containerName);
-      return containerEntity == null ? null : blobRepository.find(new BlobEntityPK(containerEntity.getId(), key));
+      Long containerId = containerRepository.findContainerIdByName(containerName);
+      return containerId == null ? null : blobRepository.find(new BlobEntityPK(containerId, key));
+   }
+
+   /**
+    * Finds the blobs with the given keys in a single transaction.
+    *
+    * @return the blobs found, in no particular order
+    */
+   @Transactional
+   public List<BlobEntity> findBlobsByIds(String containerName, List<String> keys) {
+      ContainerEntity containerEntity = containerRepository.findContainerReferenceByName(containerName);
+      return containerEntity == null ? ImmutableList.<BlobEntity>of()
+            : blobRepository.findBlobsByKeys(containerEntity, keys);
    }
 
    @Transactional
@@ -162,58 +393,377 @@ public class JdbcService {
       return chunkRepository.find(id);
    }
 
+   @Transactional
+   public List<ChunkEntity> findChunksByIds(List<Long> ids) {
+      List<ChunkEntity> chunks = chunkRepository.findChunksByIds(ids);
+      metrics.chunksRead(chunks.size(), storedBytes(chunks));
+      return chunks;
+   }
+
+   /**
+    * Finds the ids of the chunks of a payload between two positions, without loading the payload.
+    *
+    * @param last the index of the last chunk, inclusive
+    */
+   @Transactional
+   public List<Long> findChunkIds(Long payloadId, int first, int last) {
+      return chunkRepository.findChunkIds(payloadId, first, last);
+   }
+
+   @Transactional
+   public List<Long> findChunkIds(Long payloadId) {
+      return findChunkIds(payloadId, 0, Integer.MAX_VALUE);
+   }
+
+   @Transactional
+   public Map<Long, Integer> findChunkSizes(List<Long> ids) {
+      return chunkRepository.findChunkSizes(ids);
+   }
+
    @Transactional
    public List<BlobEntity> findBlobsByContainer(String containerName) {
-      return blobRepository.findBlobsByContainer(containerRepository.findContainerByName(containerName));
+      return blobRepository.findBlobsByContainer(containerRepository.findContainerReferenceByName(containerName));
    }
 
+   @Transactional
+   public List<String> findBlobKeys(String containerName, String afterKey, int limit) {
+      ContainerEntity containerEntity = containerRepository.findContainerReferenceByName(containerName);
+      return containerEntity == null ? ImmutableList.<String>of()
+            : blobRepository.findBlobKeys(containerEntity, afterKey, limit);
+   }
+
+   @Transactional
+   public List<BlobSummary> findBlobSummaries(String containerName, String prefix, String fromKey, boolean inclusive,
+         int limit) {
+      ContainerEntity containerEntity = containerRepository.findContainerReferenceByName(containerName);
+      return containerEntity == null ? ImmutableList.<BlobSummary>of()
+            : blobRepository.findBlobSummaries(containerEntity, prefix, fromKey, inclusive, limit);
+   }
+
+   @Transactional
+   public long countBlobs(String containerName, String prefix, boolean recursive) {
+      ContainerEntity containerEntity = containerRepository.findContainerReferenceByName(containerName);
+      return containerEntity == null ? 0 : blobRepository.countBlobs(containerEntity, prefix, recursive);
+   }
+
+   /**
+    * Finds the blobs inside a directory, but not the directory blob itself, with a single query whatever the depth
+    * of the directory tree.
+    *
+    * @param recursive whether the contents of subdirectories are included
+    */
    @Transactional
    public List<BlobEntity> findBlobsByDirectory(String containerName, String directoryName, boolean recursive) {
-      ImmutableList.Builder<BlobEntity> result = ImmutableList.builder();
-      List<BlobEntity> blobEntities = blobRepository
-            .findBlobsByDirectory(containerRepository.findContainerByName(containerName), directoryName);
-      result.addAll(blobEntities);
-      if (recursive) {
-         for (BlobEntity blobEntity : blobEntities) {
-            if (blobEntity.isDirectory()) {
-               result.addAll(findBlobsByDirectory(containerName, blobEntity.getKey(), true));
-            }
+      ContainerEntity containerEntity = containerRepository.findContainerReferenceByName(containerName);
+      return containerEntity == null ? ImmutableList.<BlobEntity>of()
+            : blobRepository.findBlobsByPrefix(containerEntity, directoryPrefix(directoryName), recursive);
+   }
+
+   /**
+    * Deletes all the blobs of a container. Blobs are deleted in pages of {@link JdbcConstants#DELETE_BATCH_SIZE},
+    * each in its own transaction and with one statement per table.
+    */
+   public void deleteBlobsByContainer(String containerName) {
+      deleteBlobsByPrefix(containerName, null, true);
+   }
+
+   /**
+    * Deletes the blobs inside a directory, but not the directory blob itself.
+    *
+    * @param recursive whether subdirectories and their contents are deleted too
+    */
+   public void deleteBlobsByDirectory(String containerName, String directoryName, boolean recursive) {
+      deleteBlobsByPrefix(containerName, directoryPrefix(directoryName), recursive);
+   }
+
+   private static String directoryPrefix(String directoryName) {
+      return directoryName.endsWith("/") ? directoryName : directoryName + "/";
+   }
+
+   private void deleteBlobsByPrefix(String containerName, String prefix, boolean recursive) {
+      long total = 0;
+      int deleted;
+      do {
+         deleted = deleteBlobPage(containerName, prefix, recursive);
+         total += deleted;
+         if (deleted > 0) {
+            logger.debug("<< deleted %d blobs from container %s", total, containerName);
          }
-      }
-      return result.build();
+      } while (deleted == JdbcConstants.DELETE_BATCH_SIZE);
    }
 
    @Transactional
-   public void deleteBlobsByContainer(String containerName) {
-      List<BlobEntity> blobs = findBlobsByContainer(containerName);
-      for (BlobEntity blob : blobs) {
-         deleteBlob(containerName, blob.getKey());
+   int deleteBlobPage(String containerName, String prefix, boolean recursive) {
+      ContainerEntity containerEntity = containerRepository.findContainerReferenceByName(containerName);
+      if (containerEntity == null) {
+         return 0;
       }
+      return deleteBlobRows(containerEntity, blobRepository.findBlobKeysByPrefix(containerEntity, prefix, recursive,
+            JdbcConstants.DELETE_BATCH_SIZE));
    }
 
+   /**
+    * Deletes the blobs with the given keys in a single transaction, with a constant number of statements. Keys
+    * without a blob are ignored.
+    *
+    * @return the number of blobs deleted
+    */
    @Transactional
-   public void deleteBlobsByDirectory(String containerName, String directoryName, boolean recursive) {
-      List<BlobEntity> blobs = findBlobsByDirectory(containerName, directoryName, false);
-      for (BlobEntity blob : blobs) {
-         if (!blob.isDirectory()) {
-            deleteBlob(containerName, blob.getKey());
-         }
-         else {
-            if (recursive) {
-               deleteBlobsByDirectory(containerName, blob.getKey(), true);
-               deleteBlob(containerName, blob.getKey());
-            }
+   public int deleteBlobs(String containerName, List<String> keys) {
+      ContainerEntity containerEntity = containerRepository.findContainerReferenceByName(containerName);
+      if (containerEntity == null) {
+         return 0;
+      }
+      return deleteBlobRows(containerEntity, blobRepository.findPayloadIdsByKeys(containerEntity, keys));
+   }
+
+   /**
+    * @param rows rows of {key, payload id} of the blobs to delete
+    */
+   private int deleteBlobRows(ContainerEntity containerEntity, List<Object[]> rows) {
+      List<String> keys = Lists.newArrayListWithCapacity(rows.size());
+      List<Long> payloadIds = Lists.newArrayListWithCapacity(rows.size());
+      for (Object[] row : rows) {
+         keys.add((String) row[0]);
+         if (row[1] != null) {
+            payloadIds.add((Long) row[1]);
          }
       }
+      blobRepository.deleteBlobs(containerEntity, keys, payloadIds);
+      return rows.size();
    }
 
    @Transactional
    public void deleteBlob(String containerName, String key) {
       BlobEntity blobEntity = findBlobById(containerName, key);
       if (blobEntity != null) {
-         deleteChunks(blobEntity.getPayload().getChunks());
+         chunkRepository.release(blobEntity.getPayload().getChunks());
          blobRepository.delete(blobEntity);
+         blobRepository.flush();
+      }
+   }
+
+   /**
+    * Copies a blob without reading or writing its data: the copy references the chunks of the source blob.
+    *
+    * @param contentMetadata content metadata replacing the one of the source blob, or null to keep it. The content
+    *                        length and MD5 are always those of the source blob.
+    * @param userMetadata    user metadata replacing the one of the source blob, or null to keep it
+    * @return the copy, or null if the source blob does not exist
+    */
+   @Transactional
+   public BlobEntity copyBlob(String fromContainer, String fromName, String toContainer, String toName,
+         ContentMetadata contentMetadata, Map<String, String> userMetadata) {
+      BlobEntity source = findBlobById(fromContainer, fromName);
+      if (source == null) {
+         return null;
+      }
+      PayloadEntity sourcePayload = source.getPayload();
+      List<Long> chunks = Lists.newArrayList(sourcePayload.getChunks());
+      PayloadEntity.Builder payload = PayloadEntity.builder()
+            .chunks(chunks)
+            .chunkSize(sourcePayload.getChunkSize())
+            .data(sourcePayload.getData())
+            .contentLength(sourcePayload.getContentLength())
+            .contentMD5(sourcePayload.getContentMD5());
+      if (contentMetadata != null) {
+         payload.contentType(contentMetadata.getContentType())
+               .contentDisposition(contentMetadata.getContentDisposition())
+               .contentEncoding(contentMetadata.getContentEncoding())
+               .contentLanguage(contentMetadata.getContentLanguage())
+               .expires(contentMetadata.getExpires());
+      } else {
+         payload.contentType(sourcePayload.getContentType())
+               .contentDisposition(sourcePayload.getContentDisposition())
+               .contentEncoding(sourcePayload.getContentEncoding())
+               .contentLanguage(sourcePayload.getContentLanguage())
+               .expires(sourcePayload.getExpires());
+      }
+      Map<String, String> copyMetadata = userMetadata != null ? userMetadata : source.getUserMetadata();
+      BlobEntity copy = BlobEntity.builder(null, toName)
+            .payload(payload.build())
+            .userMetadata(copyMetadata == null ? null : Maps.newHashMap(copyMetadata))
+            .blobAccess(source.getBlobAccess())
+            .size(source.getSize())
+            .etag(source.getEtag())
+            .directory(source.isDirectory())
+            .build();
+
+      // The chunks are retained before the target is deleted, since the target may be the source itself
+      chunkRepository.retain(chunks);
+      deleteBlob(toContainer, toName);
+      copy.setContainerEntity(containerRepository.findContainerReferenceByName(toContainer));
+      return blobRepository.create(copy);
+   }
+
+   /**
+    * Starts a multipart upload. Its parts are stored by {@link #uploadPart}, and only become a blob once the upload
+    * is completed.
+    *
+    * @return the id of the upload, or null if the container does not exist
+    */
+   @Transactional
+   public String initiateMultipartUpload(String containerName, BlobMetadata metadata, BlobAccess blobAccess) {
+      ContainerEntity containerEntity = containerRepository.findContainerReferenceByName(containerName);
+      if (containerEntity == null) {
+         return null;
+      }
+      ContentMetadata contentMetadata = metadata.getContentMetadata();
+      PayloadEntity payload = PayloadEntity.builder()
+            .contentType(contentMetadata.getContentType())
+            .contentDisposition(contentMetadata.getContentDisposition())
+            .contentEncoding(contentMetadata.getContentEncoding())
+            .contentLanguage(contentMetadata.getContentLanguage())
+            .expires(contentMetadata.getExpires())
+            .build();
+      Map<String, String> userMetadata = metadata.getUserMetadata() == null ? null
+            : Maps.newHashMap(metadata.getUserMetadata());
+      String uploadId = UUID.randomUUID().toString();
+      multipartRepository.create(new MultipartUploadEntity(uploadId, containerEntity, metadata.getName(), payload,
+            userMetadata, blobAccess));
+      return uploadId;
+   }
+
+   /**
+    * Stores a part of a multipart upload as a chunk sequence of its own, replacing the part with the same number if
+    * there is one. Each part is stored in its own transaction, so parts of the same upload can be stored
+    * concurrently.
+    *
+    * @return the ETag of the part, or null if the upload does not exist
+    */
+   @Transactional(rollbackOn = IOException.class)
+   public String uploadPart(String containerName, String uploadId, int partNumber, Payload payload)
+         throws IOException {
+      MultipartUploadEntity upload = findUpload(containerName, uploadId);
+      if (upload == null) {
+         return null;
+      }
+      ContentMetadata contentMetadata = payload.getContentMetadata();
+      int chunkSize = chunkSize(upload.getContainerEntity(), contentMetadata.getContentLength());
+      StoredData storedData = storeData(payload.openStream(), chunkSize, compression(upload.getContainerEntity()),
+            true);
+      checkIntegrity(contentMetadata, storedData.hash);
+
+      MultipartPartEntity previous = multipartPartRepository.findPart(uploadId, partNumber);
+      if (previous != null) {
+         chunkRepository.release(previous.getPayload().getChunks());
+         multipartPartRepository.delete(previous);
+         multipartPartRepository.flush();
+      }
+      String etag = base16().lowerCase().encode(storedData.hash.asBytes());
+      multipartPartRepository.create(new MultipartPartEntity(uploadId, partNumber, PayloadEntity.builder()
+            .chunks(storedData.chunks)
+            .chunkSize(chunkSize)
+            .contentLength(storedData.length)
+            .contentMD5(storedData.hash.asBytes())
+            .build(), etag));
+      return etag;
+   }
+
+   /**
+    * Completes a multipart upload. The blob payload references the chunks of the parts in order, so no chunk data is
+    * read or written. Its ETag is the MD5 of the concatenated part MD5s followed by the number of parts. Stored
+    * parts that are not listed are deleted.
+    *
+    * @param parts the numbers of the parts making up the blob, in order, mapped to their expected ETag or to null
+    * @return the blob, or null if the upload does not exist
+    * @throws IllegalArgumentException if a listed part was not stored or has another ETag
+    */
+   @Transactional
+   public BlobEntity completeMultipartUpload(String containerName, String uploadId, Map<Integer, String> parts) {
+      MultipartUploadEntity upload = findUpload(containerName, uploadId);
+      if (upload == null) {
+         return null;
+      }
+      checkArgument(!parts.isEmpty(), "upload %s can not be completed without parts", uploadId);
+      Map<Integer, MultipartPartEntity> storedParts = Maps.newHashMap();
+      for (MultipartPartEntity part : multipartPartRepository.findParts(uploadId)) {
+         storedParts.put(part.getPartNumber(), part);
+      }
+
+      List<Long> chunks = Lists.newArrayList();
+      Hasher etagHasher = Hashing.md5().newHasher();
+      long length = 0;
+      int chunkSize = 0;
+      // Ranges can only be mapped directly to chunks if all the chunks but the last one have the same size
+      boolean regularChunks = true;
+      boolean first = true;
+      for (Map.Entry<Integer, String> entry : parts.entrySet()) {
+         MultipartPartEntity part = storedParts.remove(entry.getKey());
+         checkArgument(part != null, "part %s of upload %s was not uploaded", entry.getKey(), uploadId);
+         checkArgument(entry.getValue() == null || part.getEtag().equalsIgnoreCase(entry.getValue().replace("\"", "")),
+               "part %s of upload %s does not have ETag %s", entry.getKey(), uploadId, entry.getValue());
+         PayloadEntity partPayload = part.getPayload();
+         if (first) {
+            chunkSize = partPayload.getChunkSize();
+            first = false;
+         } else if (partPayload.getChunkSize() != chunkSize || length % chunkSize != 0) {
+            regularChunks = false;
+         }
+         chunks.addAll(partPayload.getChunks());
+         etagHasher.putBytes(partPayload.getContentMD5());
+         length += partPayload.getContentLength();
+         // the chunks now belong to the blob payload
+         multipartPartRepository.delete(part);
+      }
+      for (MultipartPartEntity unusedPart : storedParts.values()) {
+         chunkRepository.release(unusedPart.getPayload().getChunks());
+         multipartPartRepository.delete(unusedPart);
+      }
+
+      PayloadEntity template = upload.getPayload();
+      BlobEntity blobEntity = BlobEntity.builder(null, upload.getBlobKey())
+            .payload(PayloadEntity.builder()
+                  .chunks(chunks)
+                  .chunkSize(regularChunks ? chunkSize : 0)
+                  .contentLength(length)
+                  .contentType(template.getContentType())
+                  .contentDisposition(template.getContentDisposition())
+                  .contentEncoding(template.getContentEncoding())
+                  .contentLanguage(template.getContentLanguage())
+                  .expires(template.getExpires())
+                  .build())
+            .userMetadata(upload.getUserMetadata() == null ? null : Maps.newHashMap(upload.getUserMetadata()))
+            .blobAccess(upload.getBlobAccess())
+            .size(length)
+            .etag(base16().lowerCase().encode(etagHasher.hash().asBytes()) + "-" + parts.size())
+            .build();
+      BlobEntity previous = findBlobById(containerName, upload.getBlobKey());
+      if (previous != null) {
+         blobEntity.setCreationDate(previous.getCreationDate());
+         deleteBlob(containerName, upload.getBlobKey());
+      }
+      blobEntity.setContainerEntity(upload.getContainerEntity());
+      multipartRepository.delete(upload);
+      return blobRepository.create(blobEntity);
+   }
+
+   /**
+    * Aborts a multipart upload and deletes its parts.
+    *
+    * @return false if the upload does not exist
+    */
+   @Transactional
+   public boolean abortMultipartUpload(String containerName, String uploadId) {
+      MultipartUploadEntity upload = findUpload(containerName, uploadId);
+      if (upload == null) {
+         return false;
+      }
+      deleteUpload(upload);
+      return true;
+   }
+
+   private MultipartUploadEntity findUpload(String containerName, String uploadId) {
+      MultipartUploadEntity upload = multipartRepository.find(uploadId);
+      return upload != null && upload.getContainerEntity().getName().equals(containerName) ? upload : null;
+   }
+
+   private void deleteUpload(MultipartUploadEntity upload) {
+      for (MultipartPartEntity part : multipartPartRepository.findParts(upload.getId())) {
+         chunkRepository.release(part.getPayload().getChunks());
+         multipartPartRepository.delete(part);
       }
+      multipartRepository.delete(upload);
    }
 
    @Transactional
@@ -223,34 +773,212 @@ public class JdbcService {
       blobRepository.save(blobEntity);
    }
 
-   @Transactional
-   private void deleteChunks(List<Long> chunkIds) {
-      for (Long chunkId : chunkIds) {
-         chunkRepository.delete(chunkRepository.find(chunkId));
+   /**
+    * Chooses the chunk size of a new blob. Blobs that would need more than
+    * {@link JdbcConstants#TARGET_CHUNKS_PER_BLOB} chunks of the container chunk size are stored in bigger chunks,
+    * up to {@link JdbcConstants#MAX_CHUNK_SIZE}.
+    */
+   private int chunkSize(ContainerEntity containerEntity, Long contentLength) {
+      Integer containerChunkSize = containerEntity == null ? null : containerEntity.getChunkSize();
+      int chunkSize = containerChunkSize != null ? containerChunkSize : defaultChunkSize;
+      chunkSize = Math.max(1, Math.min(chunkSize, JdbcConstants.MAX_CHUNK_SIZE));
+      if (contentLength != null && contentLength > (long) chunkSize * JdbcConstants.TARGET_CHUNKS_PER_BLOB) {
+         long grown = LongMath.divide(contentLength, JdbcConstants.TARGET_CHUNKS_PER_BLOB, RoundingMode.CEILING);
+         grown = LongMath.divide(grown, JdbcConstants.CHUNK_SIZE_ALIGNMENT, RoundingMode.CEILING)
+               * JdbcConstants.CHUNK_SIZE_ALIGNMENT;
+         chunkSize = (int) Math.min(grown, JdbcConstants.MAX_CHUNK_SIZE);
       }
+      return chunkSize;
+   }
+
+   private boolean compression(ContainerEntity containerEntity) {
+      Boolean containerCompression = containerEntity == null ? null : containerEntity.getCompression();
+      return containerCompression != null ? containerCompression : compression;
    }
 
+   /**
+    * Splits the data in chunks and stores them. The MD5 hash and the length of the data are computed while the
+    * chunks are written, so the stream is read only once and does not need to be repeatable. Chunks are persisted in
+    * batches of {@link JdbcConstants#CHUNK_BATCH_SIZE} and their buffers are reused once the batch has been flushed.
+    * Data that fits in the inline threshold is returned instead of being stored in the chunk table.
+    *
+    * @param compress whether chunks are compressed. The hashes are computed over the uncompressed data.
+    * @param part whether the data is a part of a multipart upload. Parts are always stored in chunks.
+    */
    @Transactional(rollbackOn = IOException.class)
-   private List<Long> storeData(InputStream data) throws IOException {
+   StoredData storeData(InputStream data, int chunkSize, boolean compress, boolean part) throws IOException {
+      int inlineSize = part ? -1 : Math.min(Math.min(inlineThreshold, JdbcConstants.MAX_INLINE_SIZE), chunkSize - 1);
+      HashingInputStream hashingStream = new HashingInputStream(Hashing.md5(), data);
       ImmutableList.Builder<Long> chunks = ImmutableList.builder();
-      int bytes;
-      byte[] buffer = new byte[JdbcConstants.DEFAULT_CHUNK_SIZE];
-      while ((bytes = data.read(buffer, 0, JdbcConstants.DEFAULT_CHUNK_SIZE)) != -1) {
-         chunks.add(chunkRepository.create(new ChunkEntity(buffer, bytes)).getId());
-         buffer = new byte[JdbcConstants.DEFAULT_CHUNK_SIZE];
-      }
-      data.close();
-      return chunks.build();
-   }
-
-   private void checkIntegrity(Blob blob, BlobEntity entity) throws IOException {
-      HashCode hash = blob.getMetadata().getContentMetadata().getContentMD5AsHashCode();
-      if (hash != null) {
-         HashingInputStream his = new HashingInputStream(Hashing.md5(), new JdbcInputStream(this, entity.getPayload().getChunks()));
-         HashCode actualHash = his.hash();
-         if (hash.equals(actualHash)) {
-            throw new IOException("MD5 hash code mismatch");
+      List<ChunkEntity> batch = Lists.newArrayListWithCapacity(JdbcConstants.CHUNK_BATCH_SIZE);
+      byte[] inlineData = null;
+      long length = 0;
+      long batchBytes = 0;
+      try {
+         int bytes;
+         do {
+            byte[] buffer = bufferPool.acquire(chunkSize);
+            bytes = ByteStreams.read(hashingStream, buffer, 0, chunkSize);
+            if (length == 0 && bytes <= inlineSize) {
+               inlineData = bytes == 0 ? null : Arrays.copyOf(buffer, bytes);
+               bufferPool.release(buffer);
+            } else if (bytes > 0) {
+               batch.add(newChunk(buffer, bytes, compress));
+            } else {
+               bufferPool.release(buffer);
+            }
+            length += bytes;
+            batchBytes += bytes;
+            if (batch.size() == JdbcConstants.CHUNK_BATCH_SIZE || batchBytes >= JdbcConstants.CHUNK_BATCH_BYTES) {
+               chunks.addAll(flushChunks(batch, chunkSize, deduplication));
+               batchBytes = 0;
+            }
+         } while (bytes == chunkSize);
+         chunks.addAll(flushChunks(batch, chunkSize, deduplication));
+      } finally {
+         Closeables2.closeQuietly(hashingStream);
+      }
+      return new StoredData(chunks.build(), inlineData, hashingStream.hash(), length);
+   }
+
+   /**
+    * Creates a chunk from a buffer of the pool. The chunk keeps the buffer when it holds a whole chunk stored as
+    * is. Otherwise the chunk holds its compressed data or a copy of the data sized to fit, since the last chunk is
+    * usually smaller, and the buffer is returned to the pool.
+    */
+   private ChunkEntity newChunk(byte[] buffer, int size, boolean compress) {
+      String hash = deduplication ? Hashing.sha256().hashBytes(buffer, 0, size).toString() : null;
+      byte[] data = null;
+      ChunkCodec codec = null;
+      if (compress) {
+         byte[] compressed = bufferPool.acquire(buffer.length);
+         int compressedSize = ChunkCompression.deflate(buffer, size, compressed, JdbcConstants.COMPRESSION_LEVEL);
+         if (compressedSize >= 0) {
+            data = Arrays.copyOf(compressed, compressedSize);
+            codec = ChunkCodec.DEFLATE;
          }
+         bufferPool.release(compressed);
+      }
+      if (data == null) {
+         if (size == buffer.length) {
+            return new ChunkEntity(buffer, size, hash);
+         }
+         data = Arrays.copyOf(buffer, size);
+      }
+      bufferPool.release(buffer);
+      ChunkEntity chunk = new ChunkEntity(data, size, hash);
+      chunk.setCodec(codec);
+      return chunk;
+   }
+
+   private List<Long> flushChunks(List<ChunkEntity> batch, int chunkSize, boolean deduplicate) {
+      if (batch.isEmpty()) {
+         return ImmutableList.of();
+      }
+      List<Long> ids;
+      if (deduplicate) {
+         ids = storeDeduplicated(batch);
+      } else {
+         ids = chunkRepository.createAll(batch);
+         metrics.chunksWritten(batch.size(), storedBytes(batch));
+      }
+      for (ChunkEntity chunk : batch) {
+         if (chunk.getData().length == chunkSize) {
+            bufferPool.release(chunk.getData());
+         }
+      }
+      batch.clear();
+      return ids;
+   }
+
+   /**
+    * References the stored chunks holding the same data as the chunks of the batch, and stores the others once,
+    * with a reference count matching the number of times they appear in the batch.
+    *
+    * @return the ids of the chunks in the same order
+    */
+   private List<Long> storeDeduplicated(List<ChunkEntity> batch) {
+      Set<String> hashes = Sets.newHashSet();
+      for (ChunkEntity chunk : batch) {
+         hashes.add(chunk.getHash());
+      }
+      ListMultimap<String, Long> storedChunks = chunkRepository.findChunkIdsByHashes(hashes);
+      Long[] ids = new Long[batch.size()];
+      Map<String, ChunkEntity> newChunks = Maps.newLinkedHashMap();
+      for (int i = 0; i < batch.size(); i++) {
+         ChunkEntity chunk = batch.get(i);
+         ChunkEntity newChunk = newChunks.get(chunk.getHash());
+         if (newChunk != null) {
+            newChunk.setRefCount(newChunk.getRefCount() + 1);
+            continue;
+         }
+         for (Long id : storedChunks.get(chunk.getHash())) {
+            if (chunkRepository.acquire(id)) {
+               ids[i] = id;
+               break;
+            }
+         }
+         if (ids[i] == null) {
+            newChunks.put(chunk.getHash(), chunk);
+         }
+      }
+      metrics.chunksWritten(newChunks.size(), storedBytes(newChunks.values()));
+      metrics.chunksDeduplicated(batch.size() - newChunks.size());
+      Map<String, Long> newIds = Maps.newHashMapWithExpectedSize(newChunks.size());
+      Iterator<Long> createdIds = chunkRepository.createAll(Lists.newArrayList(newChunks.values())).iterator();
+      for (String hash : newChunks.keySet()) {
+         newIds.put(hash, createdIds.next());
+      }
+      for (int i = 0; i < ids.length; i++) {
+         if (ids[i] == null) {
+            ids[i] = newIds.get(batch.get(i).getHash());
+         }
+      }
+      return ImmutableList.copyOf(ids);
+   }
+
+   private static long storedBytes(Iterable<ChunkEntity> chunks) {
+      long bytes = 0;
+      for (ChunkEntity chunk : chunks) {
+         bytes += chunk.getData().length;
+      }
+      return bytes;
+   }
+
+   private void checkIntegrity(ContentMetadata contentMetadata, HashCode actualHash) throws IOException {
+      HashCode hash = contentMetadata.getContentMD5AsHashCode();
+      if (hash != null && !hash.equals(actualHash)) {
+         throw new IOException("MD5 hash code mismatch");
+      }
+   }
+
+   /**
+    * Result of streaming a payload into the chunk table.
+    */
+   static final class StoredData {
+      private final List<Long> chunks;
+      private final byte[] inlineData;
+      private final HashCode hash;
+      private final long length;
+
+      StoredData(List<Long> chunks, byte[] inlineData, HashCode hash, long length) {
+         this.chunks = chunks;
+         this.inlineData = inlineData;
+         this.hash = hash;
+         this.length = length;
+      }
+   }
+
+   /**
+    * Result of pointing a blob to a new payload.
+    */
+   static final class PayloadSwap {
+      private final BlobEntity blobEntity;
+      private final Long previousPayloadId;
+
+      PayloadSwap(BlobEntity blobEntity, Long previousPayloadId) {
+         this.blobEntity = blobEntity;
+         this.previousPayloadId = previousPayloadId;
       }
    }
 
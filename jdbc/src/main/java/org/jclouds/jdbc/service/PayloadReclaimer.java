@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.service;
+
+import java.io.Closeable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+
+import org.jclouds.Constants;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.jdbc.reference.JdbcConstants;
+import org.jclouds.lifecycle.Closer;
+import org.jclouds.logging.Logger;
+
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Runs {@link JdbcService#reclaimPayloads} on the scheduler threads every {@link JdbcConstants#PROPERTY_RECLAIM_DELAY}
+ * seconds, until the context is closed. The first run also reclaims the payloads left by a previous run of the
+ * provider. Nothing is scheduled when no scheduler is bound or the delay is not positive, since overwrites then
+ * delete the replaced payload right away.
+ */
+@Singleton
+public class PayloadReclaimer implements Closeable {
+
+   @Resource
+   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_RECLAIM_DELAY)
+   private int reclaimDelay = JdbcConstants.DEFAULT_RECLAIM_DELAY_SECONDS;
+
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_SCHEDULER_THREADS)
+   private ListeningScheduledExecutorService scheduler;
+
+   private final JdbcService jdbcService;
+   private final Closer closer;
+   private ScheduledFuture<?> task;
+
+   @Inject
+   PayloadReclaimer(JdbcService jdbcService, Closer closer) {
+      this.jdbcService = jdbcService;
+      this.closer = closer;
+   }
+
+   @Inject
+   synchronized void schedule() {
+      if (scheduler == null || reclaimDelay <= 0 || task != null) {
+         return;
+      }
+      // the first run waits a delay as well, so that the persistence service is started
+      task = scheduler.scheduleWithFixedDelay(new Runnable() {
+         @Override
+         public void run() {
+            try {
+               int reclaimed = jdbcService.reclaimPayloads();
+               if (reclaimed > 0) {
+                  logger.debug("<< reclaimed %d payloads", reclaimed);
+               }
+            } catch (RuntimeException e) {
+               logger.warn(e, "<< could not reclaim payloads");
+            }
+         }
+      }, reclaimDelay, reclaimDelay, TimeUnit.SECONDS);
+      closer.addToClose(this);
+   }
+
+   @Override
+   public synchronized void close() {
+      if (task != null) {
+         task.cancel(false);
+         task = null;
+      }
+   }
+
+}
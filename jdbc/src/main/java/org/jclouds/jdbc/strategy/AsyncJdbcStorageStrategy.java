@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.strategy;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Named;
+
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.jdbc.reference.JdbcConstants;
+import org.jclouds.lifecycle.Closer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Runs the blob operations of the {@link JdbcStorageStrategy} on a dedicated pool of
+ * {@link JdbcConstants#PROPERTY_ASYNC_THREADS} threads, so that callers can have many operations in flight without
+ * a thread each. At most {@link JdbcConstants#PROPERTY_ASYNC_QUEUE_SIZE} operations wait for a thread: beyond that,
+ * submitting blocks the caller until an operation completes, so a fast producer cannot oversubscribe the database.
+ * <p>
+ * The payloads of the returned blobs are read lazily, in the thread consuming them.
+ */
+@Singleton
+public class AsyncJdbcStorageStrategy implements Closeable {
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_ASYNC_THREADS)
+   private int threads = JdbcConstants.DEFAULT_ASYNC_THREADS;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_ASYNC_QUEUE_SIZE)
+   private int queueSize = JdbcConstants.DEFAULT_ASYNC_QUEUE_SIZE;
+
+   private final JdbcStorageStrategy storageStrategy;
+   private final Closer closer;
+   private ListeningExecutorService executor;
+   private Semaphore permits;
+
+   @Inject
+   AsyncJdbcStorageStrategy(JdbcStorageStrategy storageStrategy, Closer closer) {
+      this.storageStrategy = storageStrategy;
+      this.closer = closer;
+   }
+
+   @Inject
+   void init() {
+      ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactoryBuilder().setNameFormat("jclouds-jdbc-async-%d").setDaemon(true).build());
+      pool.allowCoreThreadTimeOut(true);
+      executor = MoreExecutors.listeningDecorator(pool);
+      // the queue is bounded by the permits, a permit per thread and per queued operation
+      permits = new Semaphore(threads + queueSize);
+      closer.addToClose(this);
+   }
+
+   public ListenableFuture<Blob> getBlob(final String container, final String key) {
+      return submit(new Callable<Blob>() {
+         @Override
+         public Blob call() {
+            return storageStrategy.getBlob(container, key);
+         }
+      });
+   }
+
+   public ListenableFuture<BlobMetadata> getBlobMetadata(final String container, final String key) {
+      return submit(new Callable<BlobMetadata>() {
+         @Override
+         public BlobMetadata call() {
+            return storageStrategy.getBlobMetadata(container, key);
+         }
+      });
+   }
+
+   /**
+    * Gets several blobs with a few queries, see {@link JdbcStorageStrategy#getBlobs}.
+    */
+   public ListenableFuture<Map<String, Blob>> getBlobs(final String container, Collection<String> keys) {
+      final Collection<String> keyList = ImmutableList.copyOf(keys);
+      return submit(new Callable<Map<String, Blob>>() {
+         @Override
+         public Map<String, Blob> call() {
+            return storageStrategy.getBlobs(container, keyList);
+         }
+      });
+   }
+
+   public ListenableFuture<Boolean> blobExists(final String container, final String key) {
+      return submit(new Callable<Boolean>() {
+         @Override
+         public Boolean call() {
+            return storageStrategy.blobExists(container, key);
+         }
+      });
+   }
+
+   /**
+    * Stores a blob. Its payload is read by the pool thread, so it must not be consumed or closed by the caller
+    * before the future completes.
+    */
+   public ListenableFuture<String> putBlob(final String container, final Blob blob) {
+      return submit(new Callable<String>() {
+         @Override
+         public String call() throws Exception {
+            return storageStrategy.putBlob(container, blob);
+         }
+      });
+   }
+
+   public ListenableFuture<Void> removeBlob(final String container, final String key) {
+      return submit(new Callable<Void>() {
+         @Override
+         public Void call() {
+            storageStrategy.removeBlob(container, key);
+            return null;
+         }
+      });
+   }
+
+   /**
+    * Removes several blobs with a few transactions, see {@link JdbcStorageStrategy#removeBlobs}.
+    */
+   public ListenableFuture<Integer> removeBlobs(final String container, Collection<String> keys) {
+      final Collection<String> keyList = ImmutableList.copyOf(keys);
+      return submit(new Callable<Integer>() {
+         @Override
+         public Integer call() {
+            return storageStrategy.removeBlobs(container, keyList);
+         }
+      });
+   }
+
+   public ListenableFuture<PageSet<? extends StorageMetadata>> list(final String container,
+         final ListContainerOptions options) {
+      return submit(new Callable<PageSet<? extends StorageMetadata>>() {
+         @Override
+         public PageSet<? extends StorageMetadata> call() {
+            return storageStrategy.list(container, options);
+         }
+      });
+   }
+
+   /**
+    * Stops the threads once the submitted operations are done. Operations submitted afterwards fail.
+    */
+   @Override
+   public void close() {
+      executor.shutdown();
+   }
+
+   /**
+    * Submits an operation, waiting for a permit when too many operations are in flight. The permit is released when
+    * the returned future completes, which includes an operation cancelled before it started.
+    */
+   private <T> ListenableFuture<T> submit(Callable<T> operation) {
+      try {
+         permits.acquire();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return Futures.immediateFailedFuture(e);
+      }
+      ListenableFuture<T> future;
+      try {
+         future = executor.submit(operation);
+      } catch (RuntimeException e) {
+         permits.release();
+         return Futures.immediateFailedFuture(e);
+      }
+      future.addListener(new Runnable() {
+         @Override
+         public void run() {
+            permits.release();
+         }
+      }, MoreExecutors.sameThreadExecutor());
+      return future;
+   }
+
+}
@@ -19,35 +19,58 @@ package org.jclouds.jdbc.strategy;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.persistence.PersistenceException;
 
+import org.jclouds.blobstore.ContainerNotFoundException;
+import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.LocalStorageStrategy;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
 import org.jclouds.blobstore.domain.BlobBuilder;
+import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.ContainerAccess;
+import org.jclouds.blobstore.domain.MultipartPart;
 import org.jclouds.blobstore.domain.MutableStorageMetadata;
+import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.domain.StorageType;
 import org.jclouds.blobstore.domain.internal.MutableStorageMetadataImpl;
+import org.jclouds.blobstore.domain.internal.PageSetImpl;
 import org.jclouds.blobstore.options.CreateContainerOptions;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.domain.Location;
 import org.jclouds.domain.LocationBuilder;
 import org.jclouds.domain.LocationScope;
 import org.jclouds.io.ContentMetadata;
+import org.jclouds.io.Payload;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.jdbc.conversion.BlobEntityToBlob;
+import org.jclouds.jdbc.conversion.BlobEntityToBlobMetadata;
 import org.jclouds.jdbc.entity.BlobEntity;
+import org.jclouds.jdbc.entity.BlobSummary;
 import org.jclouds.jdbc.entity.ContainerEntity;
+import org.jclouds.jdbc.metrics.JdbcMetrics;
+import org.jclouds.jdbc.metrics.JdbcMetrics.Operation;
+import org.jclouds.jdbc.options.JdbcCreateContainerOptions;
 import org.jclouds.jdbc.predicates.validators.JdbcBlobKeyValidator;
 import org.jclouds.jdbc.predicates.validators.JdbcContainerNameValidator;
+import org.jclouds.jdbc.reference.JdbcConstants;
 import org.jclouds.jdbc.service.JdbcService;
+import org.jclouds.jdbc.util.BlobCache;
+import org.jclouds.jdbc.util.KeyRanges;
 
+import com.google.common.base.Strings;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteSource;
 
 /**
  * JdbcStorageStrategy implements a blob store that stores objects
@@ -61,18 +84,25 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
    private final JdbcContainerNameValidator jdbcContainerNameValidator;
    private final JdbcBlobKeyValidator jdbcBlobKeyValidator;
    private final BlobEntityToBlob blobEntityToBlob;
+   private final BlobEntityToBlobMetadata blobEntityToBlobMetadata;
+   private final JdbcMetrics metrics;
+   private final BlobCache blobCache;
    private final Location mockLocation;
 
    @Inject
    JdbcStorageStrategy(Provider<BlobBuilder> blobBuilders,
          JdbcContainerNameValidator jdbcContainerNameValidator, JdbcBlobKeyValidator jdbcBlobKeyValidator,
-         JdbcService jdbcService, BlobEntityToBlob blobEntityToBlob)
+         JdbcService jdbcService, BlobEntityToBlob blobEntityToBlob, BlobEntityToBlobMetadata blobEntityToBlobMetadata,
+         JdbcMetrics metrics, BlobCache blobCache)
          throws ClassNotFoundException, IllegalAccessException, InstantiationException, SQLException {
       this.jdbcService = jdbcService;
       this.blobBuilders = blobBuilders;
       this.jdbcContainerNameValidator = jdbcContainerNameValidator;
       this.jdbcBlobKeyValidator = jdbcBlobKeyValidator;
       this.blobEntityToBlob = blobEntityToBlob;
+      this.blobEntityToBlobMetadata = blobEntityToBlobMetadata;
+      this.metrics = metrics;
+      this.blobCache = blobCache;
       this.mockLocation = new LocationBuilder()
             .id("jdbc")
             .scope(LocationScope.PROVIDER)
@@ -112,7 +142,8 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
     *
     * @param container the name of the container to create
     * @param createContainerOptions creation options to the container. defaults the ContainerAccess
-    *                               to ContainerAccess.PRIVATE
+    *                               to ContainerAccess.PRIVATE. A {@link JdbcCreateContainerOptions} can also set
+    *                               the chunk size and the compression of the container
     * @return true if the container was created, false otherwise
     */
    @Override
@@ -123,8 +154,14 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
       ContainerAccess containerAccess = createContainerOptions == null ? ContainerAccess.PRIVATE
             : (createContainerOptions.isPublicRead() ? ContainerAccess.PUBLIC_READ
             : ContainerAccess.PRIVATE);
+      Integer chunkSize = null;
+      Boolean compression = null;
+      if (createContainerOptions instanceof JdbcCreateContainerOptions) {
+         chunkSize = ((JdbcCreateContainerOptions) createContainerOptions).getChunkSize();
+         compression = ((JdbcCreateContainerOptions) createContainerOptions).getCompression();
+      }
       try {
-         jdbcService.createContainer(container, containerAccess);
+         jdbcService.createContainer(container, containerAccess, chunkSize, compression);
       } catch (PersistenceException e) {
          return false;
       } catch (IllegalArgumentException e) {
@@ -163,8 +200,14 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
    @Override
    public void deleteContainer(String container) {
       jdbcContainerNameValidator.validate(container);
-      jdbcService.deleteBlobsByContainer(container);
-      jdbcService.deleteContainerByName(container);
+      long start = System.nanoTime();
+      try {
+         jdbcService.deleteBlobsByContainer(container);
+         jdbcService.deleteContainerByName(container);
+      } finally {
+         blobCache.invalidateContainer(container);
+         metrics.operation(Operation.DELETE, container, null, start);
+      }
    }
 
    /**
@@ -174,7 +217,13 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
     */
    @Override
    public void clearContainer(String container) {
-      jdbcService.deleteBlobsByContainer(container);
+      long start = System.nanoTime();
+      try {
+         jdbcService.deleteBlobsByContainer(container);
+      } finally {
+         blobCache.invalidateContainer(container);
+         metrics.operation(Operation.CLEAR, container, null, start);
+      }
    }
 
    /**
@@ -185,11 +234,17 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
     */
    @Override
    public void clearContainer(String container, ListContainerOptions options) {
-      if (options.getDir() != null) {
-         jdbcService.deleteBlobsByDirectory(container, options.getDir(), true);
-      }
-      else {
-         clearContainer(container);
+      long start = System.nanoTime();
+      try {
+         if (options.getDir() != null) {
+            jdbcService.deleteBlobsByDirectory(container, options.getDir(), true);
+         }
+         else {
+            jdbcService.deleteBlobsByContainer(container);
+         }
+      } finally {
+         blobCache.invalidateContainer(container);
+         metrics.operation(Operation.CLEAR, container, null, start);
       }
    }
 
@@ -234,17 +289,116 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
     * @return the blob keys inside the container
     */
    @Override
-   public Iterable<String> getBlobKeysInsideContainer(String container) throws IOException {
-      List<BlobEntity> blobEntities = jdbcService.findBlobsByContainer(container);
-      ImmutableList.Builder<String> result = ImmutableList.builder();
-      for (BlobEntity blobEntity : blobEntities) {
-         result.add(blobEntity.getKey());
+   public Iterable<String> getBlobKeysInsideContainer(final String container) throws IOException {
+      return new Iterable<String>() {
+         @Override
+         public Iterator<String> iterator() {
+            return new AbstractIterator<String>() {
+               private Iterator<String> page = ImmutableList.<String>of().iterator();
+               private String lastKey;
+               private boolean exhausted;
+
+               @Override
+               protected String computeNext() {
+                  while (!page.hasNext()) {
+                     if (exhausted) {
+                        return endOfData();
+                     }
+                     List<String> keys = jdbcService.findBlobKeys(container, lastKey, JdbcConstants.LIST_FETCH_SIZE);
+                     exhausted = keys.size() < JdbcConstants.LIST_FETCH_SIZE;
+                     page = keys.iterator();
+                  }
+                  lastKey = page.next();
+                  return lastKey;
+               }
+            };
+         }
+      };
+   }
+
+   /**
+    * Lists one page of a container. Only the blob columns are read, and at most
+    * {@link JdbcConstants#LIST_FETCH_SIZE} rows are held in memory at a time. Unless the listing is recursive, keys
+    * containing a further separator are rolled up into a single {@link StorageType#RELATIVE_PATH} entry, and the
+    * rows below it are skipped with a range seek.
+    *
+    * @param container the name of the container
+    * @param options the directory, marker and maximum number of results of the listing
+    * @return the page of blobs and relative paths, with the marker of the next page if there is one
+    * @throws ContainerNotFoundException if the container does not exist
+    */
+   public PageSet<? extends StorageMetadata> list(String container, ListContainerOptions options) {
+      long start = System.nanoTime();
+      try {
+         PageSet<? extends StorageMetadata> page = listPage(container, options);
+         // an empty page is the only one that may come from a missing container
+         if (page.isEmpty() && !containerExists(container)) {
+            throw new ContainerNotFoundException(container, "while listing");
+         }
+         return page;
+      } finally {
+         metrics.operation(Operation.LIST, container, null, start);
       }
-      return result.build();
+   }
+
+   private PageSet<? extends StorageMetadata> listPage(String container, ListContainerOptions options) {
+      String prefix = Strings.isNullOrEmpty(options.getDir()) ? null : directoryPrefix(options.getDir());
+      int prefixLength = prefix == null ? 0 : prefix.length();
+      boolean recursive = options.isRecursive();
+      int maxResults = options.getMaxResults() != null ? options.getMaxResults()
+            : JdbcConstants.DEFAULT_MAX_LIST_RESULTS;
+      int fetchSize = Math.min(maxResults, JdbcConstants.LIST_FETCH_SIZE) + 1;
+
+      String fromKey = options.getMarker();
+      boolean inclusive = false;
+      if (!recursive && fromKey != null && fromKey.length() > prefixLength && fromKey.endsWith(getSeparator())) {
+         // the marker is a relative path, resume after all of its keys
+         fromKey = KeyRanges.successor(fromKey);
+         inclusive = true;
+      }
+
+      ImmutableList.Builder<StorageMetadata> entries = ImmutableList.builder();
+      int count = 0;
+      String lastName = options.getMarker();
+      String skipPrefix = null;
+      boolean truncated = false;
+      boolean exhausted = fromKey == null && options.getMarker() != null;
+      while (!exhausted && !truncated) {
+         List<BlobSummary> rows = jdbcService.findBlobSummaries(container, prefix, fromKey, inclusive, fetchSize);
+         exhausted = rows.size() < fetchSize;
+         for (BlobSummary row : rows) {
+            String key = row.getKey();
+            if (skipPrefix != null && key.startsWith(skipPrefix)) {
+               continue;
+            }
+            if (count == maxResults) {
+               truncated = true;
+               break;
+            }
+            String relativePath = recursive ? null : relativePath(key, prefixLength);
+            if (relativePath != null) {
+               entries.add(relativePathMetadata(relativePath));
+               skipPrefix = relativePath;
+               fromKey = KeyRanges.successor(relativePath);
+               inclusive = true;
+               lastName = relativePath;
+            } else {
+               entries.add(blobMetadata(row));
+               fromKey = key;
+               inclusive = false;
+               lastName = key;
+            }
+            count++;
+         }
+         if (fromKey == null) {
+            exhausted = true;
+         }
+      }
+      return new PageSetImpl<StorageMetadata>(entries.build(), truncated ? lastName : null);
    }
 
    /**
-    * Gets a blob in a container
+    * Gets a blob in a container. Small blobs are served from the {@link BlobCache} when it is enabled.
     *
     * @param container the name of the container containing the blob
     * @param key the key of the blob to get
@@ -252,7 +406,94 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
     */
    @Override
    public Blob getBlob(String container, String key) {
-      return blobEntityToBlob.apply(jdbcService.findBlobById(container, key));
+      long start = System.nanoTime();
+      try {
+         BlobCache.Entry cached = blobCache.get(container, key);
+         if (cached != null) {
+            return blobEntityToBlob.apply(cached.getBlobEntity(), ByteSource.wrap(cached.getContent()));
+         }
+         long generation = blobCache.generation();
+         BlobEntity blobEntity = jdbcService.findBlobById(container, key);
+         Blob blob = blobEntityToBlob.apply(blobEntity);
+         if (blob != null && blobCache.accepts(blobEntity)) {
+            byte[] content = readContent(blob);
+            if (content != null) {
+               blobCache.put(container, blobEntity, content, generation);
+               blob = blobEntityToBlob.apply(blobEntity, ByteSource.wrap(content));
+            }
+         }
+         return blob;
+      } finally {
+         metrics.operation(Operation.GET, container, key, start);
+      }
+   }
+
+   /**
+    * @return the content of the blob, or null if it could not be read, in which case the blob is not cached and
+    *         its stream reports the error to the caller
+    */
+   private byte[] readContent(Blob blob) {
+      try {
+         return ((ByteSource) blob.getPayload().getRawContent()).read();
+      } catch (IOException e) {
+         return null;
+      }
+   }
+
+   /**
+    * Gets several blobs of a container. The blobs that are not cached are loaded
+    * {@link JdbcConstants#BLOB_FETCH_BATCH_SIZE} at a time, each batch with a single query. The payloads are read
+    * lazily, like the ones of {@link #getBlob}.
+    *
+    * @param container the name of the container containing the blobs
+    * @param keys the keys of the blobs to get
+    * @return the blobs found by key, in the order of the keys. Keys without a blob are left out
+    */
+   public Map<String, Blob> getBlobs(String container, Collection<String> keys) {
+      long start = System.nanoTime();
+      try {
+         Map<String, Blob> found = Maps.newHashMapWithExpectedSize(keys.size());
+         List<String> uncached = Lists.newArrayList();
+         for (String key : keys) {
+            BlobCache.Entry cached = blobCache.get(container, key);
+            if (cached != null) {
+               found.put(key, blobEntityToBlob.apply(cached.getBlobEntity(), ByteSource.wrap(cached.getContent())));
+            } else {
+               uncached.add(key);
+            }
+         }
+         for (List<String> batch : Lists.partition(uncached, JdbcConstants.BLOB_FETCH_BATCH_SIZE)) {
+            for (BlobEntity blobEntity : jdbcService.findBlobsByIds(container, batch)) {
+               found.put(blobEntity.getKey(), blobEntityToBlob.apply(blobEntity));
+            }
+         }
+         Map<String, Blob> result = Maps.newLinkedHashMap();
+         for (String key : keys) {
+            Blob blob = found.get(key);
+            if (blob != null) {
+               result.put(key, blob);
+            }
+         }
+         return result;
+      } finally {
+         metrics.operation(Operation.GET, container, keys.size(), start);
+      }
+   }
+
+   /**
+    * Gets the metadata of a blob without its payload. Its chunks are not looked up, so this takes the same time
+    * whatever the size of the blob.
+    *
+    * @param container the name of the container containing the blob
+    * @param key the key of the blob
+    * @return the blob metadata or null if the blob does not exist
+    */
+   public BlobMetadata getBlobMetadata(String container, String key) {
+      BlobCache.Entry cached = blobCache.get(container, key);
+      if (cached != null) {
+         return blobEntityToBlobMetadata.apply(cached.getBlobEntity());
+      }
+      return blobEntityToBlobMetadata.apply(jdbcService.findBlobById(container, key));
    }
 
    /**
@@ -267,7 +508,113 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
       String key = blob.getMetadata().getName();
       jdbcContainerNameValidator.validate(container);
       jdbcBlobKeyValidator.validate(key);
-      return jdbcService.createOrModifyBlob(container, blob).getEtag();
+      long start = System.nanoTime();
+      try {
+         return jdbcService.createOrModifyBlob(container, blob).getEtag();
+      } finally {
+         blobCache.invalidate(container, key);
+         metrics.operation(Operation.PUT, container, key, start);
+      }
+   }
+
+   /**
+    * Copies a blob inside the database. The copy shares the chunks of the source blob, so its data is neither read
+    * nor written again.
+    *
+    * @param fromContainer the name of the container holding the source blob
+    * @param fromName the key of the source blob
+    * @param toContainer the name of the container of the copy
+    * @param toName the key of the copy
+    * @param contentMetadata content metadata of the copy, or null to keep the one of the source blob
+    * @param userMetadata user metadata of the copy, or null to keep the one of the source blob
+    * @return the copy's etag
+    */
+   public String copyBlob(String fromContainer, String fromName, String toContainer, String toName,
+         @Nullable ContentMetadata contentMetadata, @Nullable Map<String, String> userMetadata) {
+      jdbcContainerNameValidator.validate(toContainer);
+      jdbcBlobKeyValidator.validate(toName);
+      if (!containerExists(toContainer)) {
+         throw new ContainerNotFoundException(toContainer, "while copying " + fromContainer + "/" + fromName);
+      }
+      BlobEntity copy;
+      try {
+         copy = jdbcService.copyBlob(fromContainer, fromName, toContainer, toName, contentMetadata, userMetadata);
+      } finally {
+         blobCache.invalidate(toContainer, toName);
+      }
+      if (copy == null) {
+         throw new KeyNotFoundException(fromContainer, fromName, "while copying to " + toContainer + "/" + toName);
+      }
+      return copy.getEtag();
+   }
+
+   /**
+    * Starts a multipart upload. Parts can be uploaded concurrently, each one in its own transaction.
+    *
+    * @param container the name of the container
+    * @param blobMetadata metadata of the blob to create
+    * @param blobAccess access of the blob to create
+    * @return the id of the upload
+    */
+   public String initiateMultipartUpload(String container, BlobMetadata blobMetadata, BlobAccess blobAccess) {
+      jdbcBlobKeyValidator.validate(blobMetadata.getName());
+      String uploadId = jdbcService.initiateMultipartUpload(container, blobMetadata, blobAccess);
+      if (uploadId == null) {
+         throw new ContainerNotFoundException(container, "while initiating an upload of " + blobMetadata.getName());
+      }
+      return uploadId;
+   }
+
+   /**
+    * Stores a part of a multipart upload, replacing the part with the same number if there is one.
+    *
+    * @param container the name of the container
+    * @param uploadId the id of the upload
+    * @param partNumber the number of the part
+    * @param payload the content of the part
+    * @return the part's etag
+    */
+   public String uploadMultipartPart(String container, String uploadId, int partNumber, Payload payload)
+         throws IOException {
+      String etag = jdbcService.uploadPart(container, uploadId, partNumber, payload);
+      if (etag == null) {
+         throw new KeyNotFoundException(container, uploadId, "while uploading part " + partNumber);
+      }
+      return etag;
+   }
+
+   /**
+    * Completes a multipart upload. The blob is assembled from the chunks of the parts, so their data is neither read
+    * nor written again.
+    *
+    * @param container the name of the container
+    * @param uploadId the id of the upload
+    * @param parts the parts making up the blob, in order
+    * @return the blob's etag
+    */
+   public String completeMultipartUpload(String container, String uploadId, List<MultipartPart> parts) {
+      Map<Integer, String> partETags = Maps.newLinkedHashMap();
+      for (MultipartPart part : parts) {
+         partETags.put(part.partNumber(), part.partETag());
+      }
+      BlobEntity blobEntity = jdbcService.completeMultipartUpload(container, uploadId, partETags);
+      if (blobEntity == null) {
+         throw new KeyNotFoundException(container, uploadId, "while completing the upload");
+      }
+      blobCache.invalidate(container, blobEntity.getKey());
+      return blobEntity.getEtag();
+   }
+
+   /**
+    * Aborts a multipart upload and deletes its parts.
+    *
+    * @param container the name of the container
+    * @param uploadId the id of the upload
+    */
+   public void abortMultipartUpload(String container, String uploadId) {
+      if (!jdbcService.abortMultipartUpload(container, uploadId)) {
+         throw new KeyNotFoundException(container, uploadId, "while aborting the upload");
+      }
    }
 
    /**
@@ -278,7 +625,40 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
     */
    @Override
    public void removeBlob(String container, String key) {
-      jdbcService.deleteBlob(container, key);
+      long start = System.nanoTime();
+      try {
+         jdbcService.deleteBlob(container, key);
+      } finally {
+         blobCache.invalidate(container, key);
+         metrics.operation(Operation.DELETE, container, key, start);
+      }
+   }
+
+   /**
+    * Removes several blobs of a container, {@link JdbcConstants#DELETE_BATCH_SIZE} per transaction. Keys without a
+    * blob are ignored.
+    *
+    * @param container the name of the container containing the blobs
+    * @param keys the keys of the blobs to remove
+    * @return the number of blobs removed
+    */
+   public int removeBlobs(String container, Collection<String> keys) {
+      long start = System.nanoTime();
+      int removed = 0;
+      try {
+         for (List<String> batch : Lists.partition(ImmutableList.copyOf(keys), JdbcConstants.DELETE_BATCH_SIZE)) {
+            try {
+               removed += jdbcService.deleteBlobs(container, batch);
+            } finally {
+               for (String key : batch) {
+                  blobCache.invalidate(container, key);
+               }
+            }
+         }
+         return removed;
+      } finally {
+         metrics.operation(Operation.DELETE, container, keys.size(), start);
+      }
    }
 
    /**
@@ -290,7 +670,7 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
     */
    @Override
    public BlobAccess getBlobAccess(String container, String key) {
-      return jdbcService.findBlobById(container, key).getBlobAccess();
+      return jdbcService.findBlobAccessById(container, key);
    }
 
    /**
@@ -303,6 +683,7 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
    @Override
    public void setBlobAccess(String container, String key, BlobAccess blobAccess) {
       jdbcService.setBlobAccessById(container, key, blobAccess);
+      blobCache.invalidate(container, key);
    }
 
    /**
@@ -333,8 +714,8 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
     * @return the number of blobs in the container
     */
    public long countBlobs(String container, ListContainerOptions options) {
-      return options.getDir() == null ? jdbcService.findBlobsByContainer(container).size()
-             : jdbcService.findBlobsByDirectory(container, options.getDir(), options.isRecursive()).size();
+      return options.getDir() == null ? jdbcService.countBlobs(container, null, true)
+             : jdbcService.countBlobs(container, directoryPrefix(options.getDir()), options.isRecursive());
    }
 
    /**
@@ -365,7 +746,11 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
          throw new IllegalArgumentException(
                "Directory blob cannot have content: " + blobKey);
       }
-      return jdbcService.createDirectoryBlob(container, blob).getEtag();
+      try {
+         return jdbcService.createDirectoryBlob(container, blob).getEtag();
+      } finally {
+         blobCache.invalidate(container, blobKey);
+      }
    }
 
    /**
@@ -393,4 +778,33 @@ public class JdbcStorageStrategy implements LocalStorageStrategy {
       }
    }
 
+   private String directoryPrefix(String directory) {
+      return directory.endsWith(getSeparator()) ? directory : directory + getSeparator();
+   }
+
+   private String relativePath(String key, int prefixLength) {
+      int separator = key.indexOf(getSeparator(), prefixLength);
+      return separator < 0 ? null : key.substring(0, separator + 1);
+   }
+
+   private StorageMetadata relativePathMetadata(String name) {
+      MutableStorageMetadata metadata = new MutableStorageMetadataImpl();
+      metadata.setName(name);
+      metadata.setType(StorageType.RELATIVE_PATH);
+      metadata.setLocation(mockLocation);
+      return metadata;
+   }
+
+   private StorageMetadata blobMetadata(BlobSummary summary) {
+      MutableStorageMetadata metadata = new MutableStorageMetadataImpl();
+      metadata.setName(summary.getKey());
+      metadata.setType(summary.isDirectory() ? StorageType.FOLDER : StorageType.BLOB);
+      metadata.setLocation(mockLocation);
+      metadata.setETag(summary.getEtag());
+      metadata.setCreationDate(summary.getCreationDate());
+      metadata.setLastModified(summary.getLastModified());
+      metadata.setSize(summary.getSize());
+      return metadata;
+   }
+
 }
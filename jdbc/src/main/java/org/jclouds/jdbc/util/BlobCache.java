@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.util;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Named;
+
+import org.jclouds.jdbc.entity.BlobEntity;
+import org.jclouds.jdbc.reference.JdbcConstants;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Bounded cache of small blobs, holding their entity and their content, so repeated reads of the same blob do not
+ * reach the database. Entries are weighed by the size of their content and are dropped when this node writes the
+ * blob or its container, and after {@link JdbcConstants#PROPERTY_BLOB_CACHE_EXPIRY} so that writes made by other
+ * nodes are eventually seen. Disabled unless {@link JdbcConstants#PROPERTY_BLOB_CACHE_SIZE} is set.
+ */
+@Singleton
+public class BlobCache {
+
+   /**
+    * Estimated memory used by an entry besides the content of the blob.
+    */
+   private static final int ENTRY_OVERHEAD = 512;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_BLOB_CACHE_SIZE)
+   private long maxSize = 0;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_BLOB_CACHE_MAX_BLOB_SIZE)
+   private int maxBlobSize = JdbcConstants.DEFAULT_BLOB_CACHE_MAX_BLOB_SIZE;
+
+   @Inject(optional = true)
+   @Named(JdbcConstants.PROPERTY_BLOB_CACHE_EXPIRY)
+   private long expiry = JdbcConstants.DEFAULT_BLOB_CACHE_EXPIRY_SECONDS;
+
+   /**
+    * Incremented by each invalidation, so that a blob read while it is being written is not cached.
+    */
+   private final AtomicLong generation = new AtomicLong();
+
+   private Cache<BlobKey, Entry> entries;
+
+   @Inject
+   void init() {
+      entries = CacheBuilder.newBuilder()
+            .maximumWeight(Math.max(maxSize, 0))
+            .weigher(new Weigher<BlobKey, Entry>() {
+               @Override
+               public int weigh(BlobKey key, Entry entry) {
+                  return ENTRY_OVERHEAD + entry.content.length;
+               }
+            })
+            .expireAfterWrite(expiry, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+   }
+
+   public boolean isEnabled() {
+      return maxSize > 0;
+   }
+
+   /**
+    * @return the cached blob, or null if it is not cached
+    */
+   public Entry get(String container, String key) {
+      return isEnabled() ? entries.getIfPresent(new BlobKey(container, key)) : null;
+   }
+
+   /**
+    * @return the value to pass to {@link #put} for a blob read from now on
+    */
+   public long generation() {
+      return generation.get();
+   }
+
+   /**
+    * @return whether the blob is small enough to be cached
+    */
+   public boolean accepts(BlobEntity blobEntity) {
+      return isEnabled() && !blobEntity.isDirectory() && blobEntity.getSize() != null
+            && blobEntity.getSize() <= maxBlobSize;
+   }
+
+   /**
+    * Caches a blob, unless a blob was invalidated since the given generation.
+    *
+    * @param generation the {@link #generation()} taken before the blob was read
+    */
+   public void put(String container, BlobEntity blobEntity, byte[] content, long generation) {
+      if (this.generation.get() != generation) {
+         return;
+      }
+      BlobKey key = new BlobKey(container, blobEntity.getKey());
+      entries.put(key, new Entry(blobEntity, content));
+      if (this.generation.get() != generation) {
+         // invalidated while the entry was added
+         entries.invalidate(key);
+      }
+   }
+
+   public void invalidate(String container, String key) {
+      generation.incrementAndGet();
+      entries.invalidate(new BlobKey(container, key));
+   }
+
+   public void invalidateContainer(String container) {
+      generation.incrementAndGet();
+      for (Iterator<BlobKey> it = entries.asMap().keySet().iterator(); it.hasNext();) {
+         if (it.next().container.equals(container)) {
+            it.remove();
+         }
+      }
+   }
+
+   /**
+    * @return hit and miss statistics of the cache
+    */
+   public CacheStats stats() {
+      return entries.stats();
+   }
+
+   /**
+    * A cached blob. The entity is detached and shared by all the readers, so it must not be modified.
+    */
+   public static final class Entry {
+      private final BlobEntity blobEntity;
+      private final byte[] content;
+
+      private Entry(BlobEntity blobEntity, byte[] content) {
+         this.blobEntity = blobEntity;
+         this.content = content;
+      }
+
+      public BlobEntity getBlobEntity() {
+         return blobEntity;
+      }
+
+      public byte[] getContent() {
+         return content;
+      }
+   }
+
+   private static final class BlobKey {
+      private final String container;
+      private final String key;
+
+      private BlobKey(String container, String key) {
+         this.container = container;
+         this.key = key;
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         if (!(obj instanceof BlobKey)) {
+            return false;
+         }
+         BlobKey other = (BlobKey) obj;
+         return container.equals(other.container) && key.equals(other.key);
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hashCode(container, key);
+      }
+   }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.util;
+
+import com.google.common.collect.Maps;
+import com.google.inject.Singleton;
+import org.jclouds.jdbc.reference.JdbcConstants;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of chunk buffers shared by all uploads, grouped by size. Buffers released while the pool holds
+ * {@link JdbcConstants#CHUNK_BUFFER_POOL_BYTES} are left to the garbage collector.
+ */
+@Singleton
+public class ChunkBufferPool {
+
+   private final ConcurrentMap<Integer, Queue<byte[]>> buffers = Maps.newConcurrentMap();
+   private final AtomicLong pooledBytes = new AtomicLong();
+
+   /**
+    * @return a buffer of the given size, whose content is undefined
+    */
+   public byte[] acquire(int size) {
+      Queue<byte[]> queue = buffers.get(size);
+      byte[] buffer = queue == null ? null : queue.poll();
+      if (buffer == null) {
+         return new byte[size];
+      }
+      pooledBytes.addAndGet(-size);
+      return buffer;
+   }
+
+   /**
+    * Returns a buffer to the pool. The caller must not use the buffer afterwards.
+    */
+   public void release(byte[] buffer) {
+      if (pooledBytes.addAndGet(buffer.length) > JdbcConstants.CHUNK_BUFFER_POOL_BYTES) {
+         pooledBytes.addAndGet(-buffer.length);
+         return;
+      }
+      Queue<byte[]> queue = buffers.get(buffer.length);
+      if (queue == null) {
+         Queue<byte[]> newQueue = new ConcurrentLinkedQueue<byte[]>();
+         queue = buffers.putIfAbsent(buffer.length, newQueue);
+         if (queue == null) {
+            queue = newQueue;
+         }
+      }
+      queue.offer(buffer);
+   }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.util;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Compresses and decompresses chunk data with Deflate.
+ */
+public final class ChunkCompression {
+
+   /**
+    * Compresses the first bytes of an array into a buffer.
+    *
+    * @param buffer receives the compressed data
+    * @return the size of the compressed data, or -1 if it would not be smaller than the original data
+    */
+   public static int deflate(byte[] data, int size, byte[] buffer, int level) {
+      checkArgument(buffer.length >= size, "buffer must hold at least %s bytes", size);
+      Deflater deflater = new Deflater(level);
+      try {
+         deflater.setInput(data, 0, size);
+         deflater.finish();
+         int compressedSize = deflater.deflate(buffer, 0, size);
+         return deflater.finished() && compressedSize < size ? compressedSize : -1;
+      } finally {
+         deflater.end();
+      }
+   }
+
+   /**
+    * Decompresses chunk data.
+    *
+    * @param size the size of the decompressed data
+    */
+   public static byte[] inflate(byte[] data, int size) throws IOException {
+      Inflater inflater = new Inflater();
+      try {
+         inflater.setInput(data);
+         byte[] result = new byte[size];
+         int inflated = 0;
+         while (inflated < size && !inflater.finished()) {
+            int bytes = inflater.inflate(result, inflated, size - inflated);
+            if (bytes == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+               break;
+            }
+            inflated += bytes;
+         }
+         if (inflated != size) {
+            throw new IOException("Corrupted chunk: expected " + size + " bytes after decompression");
+         }
+         return result;
+      } catch (DataFormatException e) {
+         throw new IOException("Corrupted chunk", e);
+      } finally {
+         inflater.end();
+      }
+   }
+
+   private ChunkCompression() {
+      throw new AssertionError("Intentionally Unimplemented");
+   }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.util;
+
+import org.jclouds.jdbc.service.JdbcService;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Repeatable source of the content of a blob. Slices are mapped to the chunks that hold them, so reading a byte range
+ * only loads the ids and the data of the chunks in that range.
+ */
+public class JdbcByteSource extends ByteSource {
+
+   private final JdbcService jdbcService;
+   private final Long payloadId;
+   private final int chunkSize;
+   private final long offset;
+   private final long length;
+   private final ExecutorService readAheadExecutor;
+
+   /**
+    * @param payloadId the id of the payload whose chunks hold the content. All chunks but the last one have
+    *                  chunkSize bytes.
+    * @param chunkSize the size of the chunks, or zero if they have different sizes. Slices of such content are
+    *                  reached by skipping the chunks before them, which only loads their sizes.
+    * @param size the size of the content
+    * @param readAheadExecutor executor used to load chunks in the background, or null
+    */
+   public JdbcByteSource(JdbcService jdbcService, Long payloadId, int chunkSize, long size,
+         ExecutorService readAheadExecutor) {
+      this(jdbcService, payloadId, chunkSize, 0, size, readAheadExecutor);
+   }
+
+   private JdbcByteSource(JdbcService jdbcService, Long payloadId, int chunkSize, long offset, long length,
+         ExecutorService readAheadExecutor) {
+      checkArgument(chunkSize >= 0, "chunkSize may not be negative");
+      this.jdbcService = checkNotNull(jdbcService, "jdbcService");
+      this.payloadId = checkNotNull(payloadId, "payloadId");
+      this.chunkSize = chunkSize;
+      this.offset = offset;
+      this.length = length;
+      this.readAheadExecutor = readAheadExecutor;
+   }
+
+   @Override
+   public InputStream openStream() throws IOException {
+      if (length == 0) {
+         return ByteSource.empty().openStream();
+      }
+      int firstChunk = 0;
+      List<Long> chunks;
+      if (chunkSize > 0) {
+         firstChunk = (int) (offset / chunkSize);
+         chunks = jdbcService.findChunkIds(payloadId, firstChunk, (int) ((offset + length - 1) / chunkSize));
+      } else {
+         chunks = jdbcService.findChunkIds(payloadId);
+      }
+      if (chunks.isEmpty()) {
+         // the blob was deleted or overwritten since this source was created
+         throw new IOException("Could not find the chunks of payload " + payloadId);
+      }
+      InputStream stream;
+      try {
+         stream = new JdbcInputStream(jdbcService, chunks, readAheadExecutor);
+      } catch (IllegalArgumentException e) {
+         throw new IOException(e.getCause() != null ? e.getCause() : e);
+      }
+      ByteStreams.skipFully(stream, offset - (long) firstChunk * chunkSize);
+      return new ExactLengthInputStream(stream, length);
+   }
+
+   @Override
+   public long size() {
+      return length;
+   }
+
+   @Override
+   public ByteSource slice(long sliceOffset, long sliceLength) {
+      checkArgument(sliceOffset >= 0, "offset (%s) may not be negative", sliceOffset);
+      checkArgument(sliceLength >= 0, "length (%s) may not be negative", sliceLength);
+      long start = Math.min(sliceOffset, length);
+      return new JdbcByteSource(jdbcService, payloadId, chunkSize, offset + start,
+            Math.min(sliceLength, length - start), readAheadExecutor);
+   }
+
+   /**
+    * Limits a stream to the length of the content, and fails if the chunks end before it, as they do when they are
+    * released while the stream is read.
+    */
+   private final class ExactLengthInputStream extends FilterInputStream {
+
+      private long remaining;
+
+      private ExactLengthInputStream(InputStream in, long length) {
+         super(in);
+         this.remaining = length;
+      }
+
+      @Override
+      public int read() throws IOException {
+         if (remaining == 0) {
+            return -1;
+         }
+         int b = in.read();
+         if (b == -1) {
+            throw truncated();
+         }
+         remaining--;
+         return b;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         if (remaining == 0) {
+            return -1;
+         }
+         int read = in.read(b, off, (int) Math.min(len, remaining));
+         if (read == -1) {
+            throw truncated();
+         }
+         remaining -= read;
+         return read;
+      }
+
+      @Override
+      public long skip(long n) throws IOException {
+         long skipped = in.skip(Math.min(n, remaining));
+         remaining -= skipped;
+         return skipped;
+      }
+
+      @Override
+      public int available() throws IOException {
+         return (int) Math.min(in.available(), remaining);
+      }
+
+      @Override
+      public boolean markSupported() {
+         return false;
+      }
+
+      private IOException truncated() {
+         return new EOFException("Payload " + payloadId + " is missing its last " + remaining + " bytes");
+      }
+   }
+
+}
@@ -17,28 +17,55 @@
 package org.jclouds.jdbc.util;
 
 import org.jclouds.jdbc.entity.ChunkEntity;
+import org.jclouds.jdbc.reference.JdbcConstants;
 import org.jclouds.jdbc.service.JdbcService;
 
+import com.google.common.util.concurrent.Uninterruptibles;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 
+/**
+ * Reads the content of a blob from its chunks. Chunks are loaded {@link JdbcConstants#CHUNK_FETCH_SIZE} at a time
+ * and, when an executor is given, the next batch is loaded in the background while the current one is consumed.
+ */
 public class JdbcInputStream extends InputStream {
 
-   private JdbcService jdbcService;
+   private final JdbcService jdbcService;
+   private final ExecutorService readAheadExecutor;
 
    private final List<Long> chunks;
+   private final Deque<ChunkEntity> loadedChunks = new ArrayDeque<ChunkEntity>();
+   private int nextChunk;
+   private Future<List<ChunkEntity>> readAhead;
+   private int readAheadStart;
    private ChunkEntity currentChunk;
    private int bytesRead;
 
    public JdbcInputStream(JdbcService jdbcService, List<Long> chunks) {
+      this(jdbcService, chunks, null);
+   }
+
+   /**
+    * @param readAheadExecutor executor used to load the next chunks in the background, or null to load them in the
+    *                          reading thread
+    */
+   public JdbcInputStream(JdbcService jdbcService, List<Long> chunks, ExecutorService readAheadExecutor) {
       this.jdbcService = checkNotNull(jdbcService, "jdbcService");
-      // Need to remove duplicates due to https://hibernate.atlassian.net/browse/HHH-6783
-      this.chunks = new ArrayList<Long>(new LinkedHashSet<Long>(checkNotNull(chunks, "chunks")));
+      this.chunks = checkNotNull(chunks, "chunks");
+      this.readAheadExecutor = readAheadExecutor;
       try {
          readNextChunk();
       } catch (IOException e) {
@@ -47,30 +74,177 @@ public class JdbcInputStream extends InputStream {
    }
 
    @Override
-   public synchronized int read() throws IOException {
-      if (hasFinished()) {
+   public int read() throws IOException {
+      if (!hasRemaining()) {
          return -1;
       }
       int b = currentChunk.getData()[bytesRead] & 0xff;
       bytesRead = bytesRead + 1;
-      if (bytesRead >= currentChunk.getSize()) {
-         readNextChunk();
-      }
       return b;
    }
 
-   private boolean hasFinished() {
-      return currentChunk == null || (chunks.size() == 0 && bytesRead >= currentChunk.getSize());
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException {
+      checkPositionIndexes(off, off + len, b.length);
+      if (len == 0) {
+         return 0;
+      }
+      int count = 0;
+      while (count < len && hasRemaining()) {
+         int bytes = Math.min(len - count, currentChunk.getSize() - bytesRead);
+         System.arraycopy(currentChunk.getData(), bytesRead, b, off + count, bytes);
+         bytesRead = bytesRead + bytes;
+         count = count + bytes;
+      }
+      return count == 0 ? -1 : count;
+   }
+
+   /**
+    * Skips whole chunks without loading their data when possible.
+    */
+   @Override
+   public long skip(long n) throws IOException {
+      long remaining = n;
+      while (remaining > 0 && currentChunk != null) {
+         int bytes = (int) Math.min(remaining, currentChunk.getSize() - bytesRead);
+         bytesRead = bytesRead + bytes;
+         remaining = remaining - bytes;
+         if (remaining > 0) {
+            if (loadedChunks.isEmpty()) {
+               remaining = skipUnloadedChunks(remaining);
+            }
+            if (!hasRemaining()) {
+               break;
+            }
+         }
+      }
+      return n - remaining;
+   }
+
+   @Override
+   public int available() throws IOException {
+      return currentChunk == null ? 0 : currentChunk.getSize() - bytesRead;
+   }
+
+   @Override
+   public void close() throws IOException {
+      cancelReadAhead();
+      loadedChunks.clear();
+      currentChunk = null;
+      nextChunk = chunks.size();
+   }
+
+   private boolean hasRemaining() throws IOException {
+      while (currentChunk != null && bytesRead >= currentChunk.getSize()) {
+         readNextChunk();
+      }
+      return currentChunk != null;
    }
 
    private void readNextChunk() throws IOException {
-      if (chunks.size() > 0) {
-         this.currentChunk = jdbcService.findChunkById(chunks.get(0));
-         if (currentChunk == null) {
-            throw new IOException("Could not find chunk.");
+      if (loadedChunks.isEmpty()) {
+         if (readAhead != null) {
+            loadedChunks.addAll(getReadAhead());
+         } else if (nextChunk < chunks.size()) {
+            loadedChunks.addAll(fetchChunks(nextChunkIds()));
          }
-         chunks.remove(0);
-         this.bytesRead = 0;
+         scheduleReadAhead();
+      }
+      this.currentChunk = loadedChunks.poll();
+      this.bytesRead = 0;
+   }
+
+   /**
+    * Skips the chunks that have not been loaded yet, looking only at their sizes. Stops at the chunk containing the
+    * target position, which becomes the next chunk to load.
+    *
+    * @return the number of bytes still to be skipped
+    */
+   private long skipUnloadedChunks(long n) throws IOException {
+      cancelReadAhead();
+      long remaining = n;
+      while (nextChunk < chunks.size()) {
+         int end = Math.min(nextChunk + JdbcConstants.CHUNK_SIZE_FETCH_SIZE, chunks.size());
+         Map<Long, Integer> sizes = jdbcService.findChunkSizes(chunks.subList(nextChunk, end));
+         for (; nextChunk < end; nextChunk++) {
+            Integer size = sizes.get(chunks.get(nextChunk));
+            if (size == null) {
+               throw new IOException("Could not find chunk.");
+            }
+            if (size > remaining) {
+               return remaining;
+            }
+            remaining = remaining - size;
+         }
+      }
+      return remaining;
+   }
+
+   private List<Long> nextChunkIds() {
+      int end = Math.min(nextChunk + JdbcConstants.CHUNK_FETCH_SIZE, chunks.size());
+      List<Long> ids = chunks.subList(nextChunk, end);
+      nextChunk = end;
+      return ids;
+   }
+
+   /**
+    * Loads chunks and decompresses the compressed ones, so decompression also happens in the background when the
+    * chunks are read ahead.
+    */
+   private List<ChunkEntity> fetchChunks(List<Long> ids) throws IOException {
+      List<ChunkEntity> result = jdbcService.findChunksByIds(ids);
+      if (result == null || result.size() != ids.size()) {
+         throw new IOException("Could not find chunk.");
+      }
+      List<ChunkEntity> chunks = new ArrayList<ChunkEntity>(result.size());
+      for (ChunkEntity chunk : result) {
+         chunks.add(decode(chunk));
+      }
+      return chunks;
+   }
+
+   private static ChunkEntity decode(ChunkEntity chunk) throws IOException {
+      if (chunk.getCodec() == null) {
+         return chunk;
+      }
+      ChunkEntity decoded = new ChunkEntity(ChunkCompression.inflate(chunk.getData(), chunk.getSize()),
+            chunk.getSize());
+      decoded.setId(chunk.getId());
+      return decoded;
+   }
+
+   private void scheduleReadAhead() {
+      if (readAheadExecutor == null || readAhead != null || nextChunk >= chunks.size()) {
+         return;
+      }
+      readAheadStart = nextChunk;
+      final List<Long> ids = nextChunkIds();
+      readAhead = readAheadExecutor.submit(new Callable<List<ChunkEntity>>() {
+         @Override
+         public List<ChunkEntity> call() throws IOException {
+            return fetchChunks(ids);
+         }
+      });
+   }
+
+   private List<ChunkEntity> getReadAhead() throws IOException {
+      try {
+         return Uninterruptibles.getUninterruptibly(readAhead);
+      } catch (ExecutionException e) {
+         if (e.getCause() instanceof IOException) {
+            throw (IOException) e.getCause();
+         }
+         throw new IOException(e.getCause());
+      } finally {
+         readAhead = null;
+      }
+   }
+
+   private void cancelReadAhead() {
+      if (readAhead != null) {
+         readAhead.cancel(true);
+         readAhead = null;
+         nextChunk = readAheadStart;
       }
    }
 
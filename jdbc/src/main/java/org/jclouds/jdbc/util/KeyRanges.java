@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.jdbc.util;
+
+/**
+ * Helpers to turn key prefixes into key ranges that can be resolved with an index seek.
+ */
+public final class KeyRanges {
+
+   /**
+    * Returns the smallest string that is greater than every string starting with the given prefix, or null if there
+    * is no such string.
+    */
+   public static String successor(String prefix) {
+      int i = prefix.length() - 1;
+      while (i >= 0 && prefix.charAt(i) == Character.MAX_VALUE) {
+         i--;
+      }
+      if (i < 0) {
+         return null;
+      }
+      return prefix.substring(0, i) + (char) (prefix.charAt(i) + 1);
+   }
+
+   private KeyRanges() {
+      throw new AssertionError("Intentionally Unimplemented");
+   }
+}
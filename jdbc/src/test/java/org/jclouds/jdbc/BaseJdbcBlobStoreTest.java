@@ -210,6 +210,29 @@ public abstract class BaseJdbcBlobStoreTest {
       checkForContainerContent(CONTAINER_NAME, "rrr/", blobsExpected);
    }
 
+   @Test
+   public void testListPages() {
+      blobStore.createContainerInLocation(null, CONTAINER_NAME);
+      for (String key : new String[] { "a", "b/1", "b/2", "c" }) {
+         createBlobInContainer(CONTAINER_NAME, key);
+      }
+
+      PageSet<? extends StorageMetadata> page = blobStore.list(CONTAINER_NAME,
+            ListContainerOptions.Builder.maxResults(2));
+      assertThat(page).hasSize(2);
+      Iterator<? extends StorageMetadata> entries = page.iterator();
+      assertThat(entries.next().getName()).isEqualTo("a");
+      StorageMetadata relativePath = entries.next();
+      assertThat(relativePath.getName()).isEqualTo("b/");
+      assertThat(relativePath.getType()).isEqualTo(StorageType.RELATIVE_PATH);
+      assertThat(page.getNextMarker()).isEqualTo("b/");
+
+      page = blobStore.list(CONTAINER_NAME, ListContainerOptions.Builder.afterMarker(page.getNextMarker()));
+      assertThat(page).hasSize(1);
+      assertThat(page.iterator().next().getName()).isEqualTo("c");
+      assertThat(page.getNextMarker()).isNull();
+   }
+
    @Test
    public void testClearContainerNotExistingContainer() {
       blobStore.clearContainer(CONTAINER_NAME);
@@ -17,16 +17,25 @@
 package org.jclouds.jdbc;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import org.jclouds.jdbc.entity.ChunkCodec;
+import org.jclouds.jdbc.entity.ChunkEntity;
 import org.jclouds.jdbc.service.JdbcService;
+import org.jclouds.jdbc.util.ChunkCompression;
 import org.jclouds.jdbc.util.JdbcInputStream;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.Deflater;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.easymock.EasyMock.createNiceMock;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
 
 @Test(groups = "unit", testName = "JdbcInputStreamTest")
 public class JdbcInputStreamTest {
@@ -40,7 +49,8 @@ public class JdbcInputStreamTest {
 
    @Test(expectedExceptions = IllegalArgumentException.class)
    public void testInvalidIdList() throws IOException {
-      expect(mockJdbcService.findChunkById(0L)).andReturn(null);
+      expect(mockJdbcService.findChunksByIds(ImmutableList.of(0L))).andReturn(ImmutableList.<ChunkEntity>of());
+      replay(mockJdbcService);
       new JdbcInputStream(mockJdbcService, ImmutableList.<Long>builder().add(0L).build());
    }
 
@@ -56,4 +66,58 @@ public class JdbcInputStreamTest {
       assertThat(jdbcInputStream.read()).isEqualTo(-1);
    }
 
+   @Test
+   public void testBulkReadAcrossChunks() throws IOException {
+      expect(mockJdbcService.findChunksByIds(ImmutableList.of(1L, 2L)))
+            .andReturn(ImmutableList.of(chunk(1L, "abc"), chunk(2L, "de")));
+      replay(mockJdbcService);
+      JdbcInputStream jdbcInputStream = new JdbcInputStream(mockJdbcService, ImmutableList.of(1L, 2L));
+      byte[] buffer = new byte[8];
+      assertThat(jdbcInputStream.read(buffer, 1, 4)).isEqualTo(4);
+      assertThat(new String(buffer, 1, 4)).isEqualTo("abcd");
+      assertThat(jdbcInputStream.read()).isEqualTo('e');
+      assertThat(jdbcInputStream.read(buffer, 0, 8)).isEqualTo(-1);
+   }
+
+   @Test
+   public void testSkipUnloadedChunks() throws IOException {
+      expect(mockJdbcService.findChunksByIds(ImmutableList.of(1L, 2L, 3L, 4L)))
+            .andReturn(ImmutableList.of(chunk(1L, "ab"), chunk(2L, "cd"), chunk(3L, "ef"), chunk(4L, "gh")));
+      expect(mockJdbcService.findChunkSizes(ImmutableList.of(5L, 6L)))
+            .andReturn(ImmutableMap.of(5L, 2, 6L, 2));
+      expect(mockJdbcService.findChunksByIds(ImmutableList.of(5L, 6L)))
+            .andReturn(ImmutableList.of(chunk(5L, "ij"), chunk(6L, "kl")));
+      replay(mockJdbcService);
+      JdbcInputStream jdbcInputStream = new JdbcInputStream(mockJdbcService,
+            ImmutableList.of(1L, 2L, 3L, 4L, 5L, 6L));
+      assertThat(jdbcInputStream.read()).isEqualTo('a');
+      assertThat(jdbcInputStream.skip(8)).isEqualTo(8);
+      assertThat(jdbcInputStream.read()).isEqualTo('j');
+      assertThat(jdbcInputStream.skip(10)).isEqualTo(2);
+      assertThat(jdbcInputStream.read()).isEqualTo(-1);
+      verify(mockJdbcService);
+   }
+
+   @Test
+   public void testCompressedChunks() throws IOException {
+      byte[] data = "abcabcabcabcabcabcabcabcabcabc".getBytes();
+      byte[] buffer = new byte[data.length];
+      int compressedSize = ChunkCompression.deflate(data, data.length, buffer, Deflater.BEST_SPEED);
+      assertThat(compressedSize).isPositive().isLessThan(data.length);
+      ChunkEntity compressed = new ChunkEntity(Arrays.copyOf(buffer, compressedSize), data.length);
+      compressed.setId(2L);
+      compressed.setCodec(ChunkCodec.DEFLATE);
+      expect(mockJdbcService.findChunksByIds(ImmutableList.of(1L, 2L)))
+            .andReturn(ImmutableList.of(chunk(1L, "xyz"), compressed));
+      replay(mockJdbcService);
+      JdbcInputStream jdbcInputStream = new JdbcInputStream(mockJdbcService, ImmutableList.of(1L, 2L));
+      assertThat(ByteStreams.toByteArray(jdbcInputStream)).isEqualTo(("xyz" + new String(data)).getBytes());
+   }
+
+   private static ChunkEntity chunk(Long id, String data) {
+      ChunkEntity chunk = new ChunkEntity(data.getBytes(), data.length());
+      chunk.setId(id);
+      return chunk;
+   }
+
 }
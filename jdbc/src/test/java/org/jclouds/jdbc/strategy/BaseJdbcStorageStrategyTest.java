@@ -16,28 +16,63 @@
  */
 package org.jclouds.jdbc.strategy;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.Module;
 import com.google.inject.persist.PersistService;
+import com.google.inject.name.Names;
 import com.google.inject.persist.jpa.JpaPersistModule;
+import org.jclouds.Constants;
+import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobAccess;
+import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.ContainerAccess;
+import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.domain.StorageType;
 import org.jclouds.blobstore.domain.internal.BlobBuilderImpl;
 import org.jclouds.blobstore.options.CreateContainerOptions;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.io.ByteStreams2;
+import org.jclouds.io.Payloads;
+import org.jclouds.jdbc.entity.ChunkCodec;
+import org.jclouds.jdbc.entity.ChunkEntity;
+import org.jclouds.jdbc.metrics.DefaultJdbcMetrics;
+import org.jclouds.jdbc.metrics.JdbcMetrics;
+import org.jclouds.jdbc.metrics.TimerStatistics;
+import org.jclouds.jdbc.options.JdbcCreateContainerOptions;
 import org.jclouds.jdbc.module.TestContextModule;
+import org.jclouds.jdbc.reference.JdbcConstants;
+import org.jclouds.jdbc.service.JdbcService;
+import org.jclouds.jdbc.util.BlobCache;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.jclouds.utils.TestUtils.randomByteSource;
@@ -62,6 +97,28 @@ public abstract class BaseJdbcStorageStrategyTest {
       storageStrategy = injector.getInstance(JdbcStorageStrategy.class);
    }
 
+   /**
+    * Restarts the storage strategy with some properties set.
+    */
+   private void setUpWithProperties(final Map<String, String> properties) {
+      setUpWithModule(new AbstractModule() {
+         @Override
+         protected void configure() {
+            Names.bindProperties(binder(), properties);
+         }
+      });
+   }
+
+   /**
+    * Restarts the storage strategy with some more bindings.
+    */
+   private void setUpWithModule(Module module) {
+      tearDown();
+      injector = Guice.createInjector(ImmutableSet.<Module> of(new TestContextModule(),
+            new JpaPersistModule(jpaModuleName), module));
+      storageStrategy = injector.getInstance(JdbcStorageStrategy.class);
+   }
+
    @AfterMethod
    protected void tearDown() {
       injector.getInstance(PersistService.class).stop();
@@ -167,6 +224,64 @@ public abstract class BaseJdbcStorageStrategyTest {
         }
     }
 
+   @Test
+   public void testPutNonRepeatableBlob() throws IOException {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      ByteSource content = randomByteSource().slice(0, 3 * 1024 * 1024 + 17);
+      String etag = storageStrategy.putBlob(CONTAINER_NAME,
+            new BlobBuilderImpl().name(BLOB_NAME).payload(content.openStream()).build());
+      assertThat(etag).isEqualTo(content.hash(Hashing.md5()).toString());
+      Blob blob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      assertThat(blob.getMetadata().getSize()).isEqualTo(content.size());
+      assertThat(ByteStreams2.hashAndClose(blob.getPayload().openStream(), Hashing.md5()))
+            .isEqualTo(content.hash(Hashing.md5()));
+   }
+
+   @Test
+   public void testGetBlobRange() throws IOException {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      ByteSource content = randomByteSource().slice(0, 3 * 1024 * 1024 + 5);
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(content).build());
+      ByteSource blobContent = (ByteSource) storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME).getPayload()
+            .getRawContent();
+      assertThat(blobContent.size()).isEqualTo(content.size());
+      long offset = 2 * 1024 * 1024 - 10;
+      assertThat(blobContent.slice(offset, 1024 * 1024 + 20).read())
+            .isEqualTo(content.slice(offset, 1024 * 1024 + 20).read());
+      assertThat(blobContent.slice(content.size() - 3, 100).read()).isEqualTo(content.slice(content.size() - 3, 3).read());
+      assertThat(blobContent.slice(content.size(), 100).read()).isEmpty();
+   }
+
+   @Test
+   public void testContainerChunkSize() throws IOException {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null,
+            JdbcCreateContainerOptions.Builder.chunkSize(64 * 1024))).isTrue();
+      ByteSource content = randomByteSource().slice(0, 200 * 1024);
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(content).build());
+      ByteSource blobContent = (ByteSource) storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME).getPayload()
+            .getRawContent();
+      assertThat(blobContent.read()).isEqualTo(content.read());
+      assertThat(blobContent.slice(100 * 1024, 64 * 1024).read()).isEqualTo(content.slice(100 * 1024, 64 * 1024).read());
+   }
+
+   @Test
+   public void testPutInlineBlob() throws IOException {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      ByteSource content = randomByteSource().slice(0, 2 * 1024);
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(content).build());
+      Blob blob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      assertThat(blob.getMetadata().getSize()).isEqualTo(content.size());
+      assertThat(ByteStreams2.toByteArrayAndClose(blob.getPayload().openStream())).isEqualTo(content.read());
+   }
+
+   @Test(expectedExceptions = IOException.class)
+   public void testPutBlobWithWrongMD5() throws IOException {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      Blob blob = new BlobBuilderImpl().name(BLOB_NAME).payload(randomByteSource().slice(0, 1024)).build();
+      blob.getMetadata().getContentMetadata().setContentMD5(Hashing.md5().hashBytes(new byte[0]));
+      storageStrategy.putBlob(CONTAINER_NAME, blob);
+   }
+
    @Test
    public void testRemoveBlob() throws IOException {
       assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
@@ -177,6 +292,16 @@ public abstract class BaseJdbcStorageStrategyTest {
       assertThat(storageStrategy.blobExists(CONTAINER_NAME, BLOB_NAME)).isFalse();
    }
 
+   @Test(expectedExceptions = IOException.class)
+   public void testReadRemovedBlob() throws IOException {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      storageStrategy.putBlob(CONTAINER_NAME,
+            new BlobBuilderImpl().name(BLOB_NAME).payload(randomByteSource().slice(0, 100 * 1024)).build());
+      Blob blob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      storageStrategy.removeBlob(CONTAINER_NAME, BLOB_NAME);
+      ByteStreams2.toByteArrayAndClose(blob.getPayload().openStream());
+   }
+
    @Test
    public void testGetBlobAccess() throws IOException {
       assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
@@ -203,6 +328,467 @@ public abstract class BaseJdbcStorageStrategyTest {
       assertThat(storageStrategy.containerExists(CONTAINER_NAME)).isFalse();
    }
 
+   @Test
+   public void testClearDirectory() throws IOException {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      storageStrategy.createDirectory(CONTAINER_NAME, "dir");
+      storageStrategy.createDirectory(CONTAINER_NAME, "dir/sub");
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name("dir/" + BLOB_NAME)
+            .userMetadata(ImmutableMap.of("key", "value"))
+            .payload(randomByteSource().slice(0, 2 * 1024 * 1024)).build());
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name("dir/sub/" + BLOB_NAME)
+            .payload(randomByteSource().slice(0, 1024)).build());
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name("dirty" + BLOB_NAME)
+            .payload(randomByteSource().slice(0, 1024)).build());
+      storageStrategy.clearContainer(CONTAINER_NAME, ListContainerOptions.Builder.inDirectory("dir"));
+      assertThat(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME)).containsOnly("dir", "dirty" + BLOB_NAME);
+      storageStrategy.deleteContainer(CONTAINER_NAME);
+      assertThat(storageStrategy.containerExists(CONTAINER_NAME)).isFalse();
+   }
+
+   @Test
+   public void testListContainer() throws IOException {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      for (String key : new String[] { "a", "b/1", "b/2", "b/c/3", "c" }) {
+         storageStrategy.putBlob(CONTAINER_NAME,
+               new BlobBuilderImpl().name(key).payload(randomByteSource().slice(0, 1024)).build());
+      }
+
+      PageSet<? extends StorageMetadata> page = storageStrategy.list(CONTAINER_NAME,
+            ListContainerOptions.Builder.maxResults(2));
+      assertThat(names(page)).containsExactly("a", "b/");
+      assertThat(Iterables.get(page, 0).getSize()).isEqualTo(1024L);
+      assertThat(Iterables.get(page, 1).getType()).isEqualTo(StorageType.RELATIVE_PATH);
+      assertThat(page.getNextMarker()).isEqualTo("b/");
+
+      page = storageStrategy.list(CONTAINER_NAME, ListContainerOptions.Builder.afterMarker(page.getNextMarker()));
+      assertThat(names(page)).containsExactly("c");
+      assertThat(page.getNextMarker()).isNull();
+
+      page = storageStrategy.list(CONTAINER_NAME, ListContainerOptions.Builder.inDirectory("b"));
+      assertThat(names(page)).containsExactly("b/1", "b/2", "b/c/");
+      page = storageStrategy.list(CONTAINER_NAME, ListContainerOptions.Builder.inDirectory("b").recursive());
+      assertThat(names(page)).containsExactly("b/1", "b/2", "b/c/3");
+
+      assertThat(storageStrategy.countBlobs(CONTAINER_NAME, ListContainerOptions.NONE)).isEqualTo(5);
+      assertThat(storageStrategy.countBlobs(CONTAINER_NAME, ListContainerOptions.Builder.inDirectory("b")))
+            .isEqualTo(2);
+      assertThat(storageStrategy.countBlobs(CONTAINER_NAME,
+            ListContainerOptions.Builder.inDirectory("b").recursive())).isEqualTo(3);
+   }
+
+   @Test
+   public void testCountBlobsInDirectoryTree() throws IOException {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      storageStrategy.createDirectory(CONTAINER_NAME, "dir");
+      storageStrategy.createDirectory(CONTAINER_NAME, "dir/a");
+      storageStrategy.createDirectory(CONTAINER_NAME, "dir/a/b");
+      for (String key : new String[] { "dir/1", "dir/a/2", "dir/a/b/3", "dir0", "dirty" }) {
+         storageStrategy.putBlob(CONTAINER_NAME,
+               new BlobBuilderImpl().name(key).payload(randomByteSource().slice(0, 1024)).build());
+      }
+      assertThat(storageStrategy.countBlobs(CONTAINER_NAME,
+            ListContainerOptions.Builder.inDirectory("dir").recursive())).isEqualTo(5);
+      assertThat(storageStrategy.countBlobs(CONTAINER_NAME, ListContainerOptions.Builder.inDirectory("dir")))
+            .isEqualTo(2);
+      storageStrategy.clearContainer(CONTAINER_NAME, ListContainerOptions.Builder.inDirectory("dir"));
+      assertThat(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME)).containsExactly("dir", "dir0", "dirty");
+   }
+
+   @Test
+   public void testContainerCacheInvalidation() throws IOException {
+      JdbcService jdbcService = injector.getInstance(JdbcService.class);
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      storageStrategy.putBlob(CONTAINER_NAME,
+            new BlobBuilderImpl().name(BLOB_NAME).payload(randomByteSource().slice(0, 1024)).build());
+      long hits = jdbcService.getContainerCacheStats().hitCount();
+      assertThat(storageStrategy.blobExists(CONTAINER_NAME, BLOB_NAME)).isTrue();
+      assertThat(jdbcService.getContainerCacheStats().hitCount()).isGreaterThan(hits);
+
+      storageStrategy.deleteContainer(CONTAINER_NAME);
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      assertThat(storageStrategy.blobExists(CONTAINER_NAME, BLOB_NAME)).isFalse();
+      storageStrategy.putBlob(CONTAINER_NAME,
+            new BlobBuilderImpl().name(BLOB_NAME).payload(randomByteSource().slice(0, 1024)).build());
+      assertThat(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME)).containsExactly(BLOB_NAME);
+   }
+
+   @Test
+   public void testDeduplicatedChunks() throws IOException {
+      setUpWithProperties(ImmutableMap.of(JdbcConstants.PROPERTY_DEDUPLICATION, "true"));
+      JdbcService jdbcService = injector.getInstance(JdbcService.class);
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      ByteSource chunk = randomByteSource().slice(0, JdbcConstants.DEFAULT_CHUNK_SIZE);
+      ByteSource content = ByteSource.concat(chunk, chunk, randomByteSource().slice(0, 1024));
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME + "1").payload(content).build());
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME + "2").payload(content).build());
+
+      List<Long> chunks = chunkIds(jdbcService, BLOB_NAME + "1");
+      // the repeated chunk is stored once and referenced twice
+      assertThat(chunks).hasSize(3);
+      assertThat(chunks.get(1)).isEqualTo(chunks.get(0));
+      assertThat(chunks.get(2)).isNotEqualTo(chunks.get(0));
+      assertThat(chunkIds(jdbcService, BLOB_NAME + "2"))
+            .containsExactlyElementsOf(chunks);
+
+      storageStrategy.removeBlob(CONTAINER_NAME, BLOB_NAME + "1");
+      Blob blob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME + "2");
+      assertThat(ByteStreams2.hashAndClose(blob.getPayload().openStream(), Hashing.md5()))
+            .isEqualTo(content.hash(Hashing.md5()));
+      storageStrategy.removeBlob(CONTAINER_NAME, BLOB_NAME + "2");
+      assertThat(jdbcService.findChunksByIds(chunks)).isEmpty();
+   }
+
+   @Test
+   public void testCompressedChunks() throws IOException {
+      JdbcService jdbcService = injector.getInstance(JdbcService.class);
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null,
+            JdbcCreateContainerOptions.Builder.compression(true))).isTrue();
+      ByteSource text = ByteSource.wrap(getByteArray('a', JdbcConstants.DEFAULT_CHUNK_SIZE));
+      ByteSource content = ByteSource.concat(text, randomByteSource().slice(0, JdbcConstants.DEFAULT_CHUNK_SIZE),
+            text.slice(0, 1024));
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(content).build());
+
+      List<ChunkEntity> chunks = jdbcService.findChunksByIds(chunkIds(jdbcService, BLOB_NAME));
+      assertThat(chunks).hasSize(3);
+      assertThat(chunks.get(0).getCodec()).isEqualTo(ChunkCodec.DEFLATE);
+      assertThat(chunks.get(0).getData().length).isLessThan(chunks.get(0).getSize());
+      // random data does not shrink and is stored as is
+      assertThat(chunks.get(1).getCodec()).isNull();
+      assertThat(chunks.get(2).getCodec()).isEqualTo(ChunkCodec.DEFLATE);
+
+      Blob blob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      assertThat(blob.getMetadata().getETag()).isEqualTo(content.hash(Hashing.md5()).toString());
+      assertThat(ByteStreams2.hashAndClose(blob.getPayload().openStream(), Hashing.md5()))
+            .isEqualTo(content.hash(Hashing.md5()));
+      ByteSource source = (ByteSource) blob.getPayload().getRawContent();
+      long offset = 2 * JdbcConstants.DEFAULT_CHUNK_SIZE - 10;
+      assertThat(source.slice(offset, 20).read()).isEqualTo(content.slice(offset, 20).read());
+   }
+
+   @Test
+   public void testOverwriteBlob() throws IOException {
+      JdbcService jdbcService = injector.getInstance(JdbcService.class);
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      ByteSource content = randomByteSource().slice(0, 2 * 1024 * 1024);
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(content)
+            .userMetadata(ImmutableMap.of("key", "value")).build());
+      Blob blob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      final String etag = blob.getMetadata().getETag();
+      List<Long> chunks = chunkIds(jdbcService, BLOB_NAME);
+
+      // the previous content stays visible while the new one is stored
+      final List<String> observedEtags = Lists.newArrayList();
+      ByteSource newContent = randomByteSource().slice(0, 3 * 1024 * 1024);
+      InputStream stream = new FilterInputStream(newContent.openStream()) {
+         @Override
+         public int read(byte[] b, int off, int len) throws IOException {
+            observedEtags.add(storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME).getMetadata().getETag());
+            return super.read(b, off, len);
+         }
+      };
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(stream).build());
+      assertThat(observedEtags).isNotEmpty().containsOnly(etag);
+
+      Blob newBlob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      assertThat(newBlob.getMetadata().getETag()).isEqualTo(newContent.hash(Hashing.md5()).toString());
+      assertThat(newBlob.getMetadata().getCreationDate()).isEqualTo(blob.getMetadata().getCreationDate());
+      assertThat(newBlob.getMetadata().getUserMetadata()).isEmpty();
+      assertThat(ByteStreams2.hashAndClose(newBlob.getPayload().openStream(), Hashing.md5()))
+            .isEqualTo(newContent.hash(Hashing.md5()));
+      // without a scheduler the replaced payload is reclaimed right away
+      assertThat(jdbcService.findChunksByIds(chunks)).isEmpty();
+   }
+
+   @Test
+   public void testDeferredReclaim() throws IOException {
+      final ListeningScheduledExecutorService scheduler = MoreExecutors.listeningDecorator(
+            Executors.newSingleThreadScheduledExecutor());
+      try {
+         setUpWithModule(new AbstractModule() {
+            @Override
+            protected void configure() {
+               Names.bindProperties(binder(), ImmutableMap.of(JdbcConstants.PROPERTY_RECLAIM_DELAY, "1"));
+               bind(ListeningScheduledExecutorService.class)
+                     .annotatedWith(Names.named(Constants.PROPERTY_SCHEDULER_THREADS)).toInstance(scheduler);
+            }
+         });
+         JdbcService jdbcService = injector.getInstance(JdbcService.class);
+         assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+         ByteSource content = ByteSource.wrap(getByteArray('a', 100 * 1024));
+         storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(content).build());
+         Blob blob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+         List<Long> chunks = chunkIds(jdbcService, BLOB_NAME);
+         storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME)
+               .payload(getByteArray('b', 100 * 1024)).build());
+
+         // the replaced payload stays readable until its reclaim time, which is stored rather than scheduled, so
+         // that a sweep by another run of the provider finds it
+         assertThat(jdbcService.reclaimPayloads()).isZero();
+         assertThat(ByteStreams2.toByteArrayAndClose(blob.getPayload().openStream())).isEqualTo(content.read());
+         Uninterruptibles.sleepUninterruptibly(1100, TimeUnit.MILLISECONDS);
+         assertThat(jdbcService.reclaimPayloads()).isEqualTo(1);
+         assertThat(jdbcService.findChunksByIds(chunks)).isEmpty();
+      } finally {
+         scheduler.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testMetrics() throws IOException {
+      setUpWithProperties(ImmutableMap.of(JdbcConstants.PROPERTY_SLOW_OPERATION_THRESHOLD, "1"));
+      DefaultJdbcMetrics metrics = (DefaultJdbcMetrics) injector.getInstance(JdbcMetrics.class);
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      ByteSource content = randomByteSource().slice(0, 2 * 1024 * 1024 + 1);
+      InputStream slowStream = new FilterInputStream(content.openStream()) {
+         @Override
+         public int read(byte[] b, int off, int len) throws IOException {
+            Uninterruptibles.sleepUninterruptibly(5, TimeUnit.MILLISECONDS);
+            return super.read(b, off, len);
+         }
+      };
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(slowStream).build());
+      ByteStreams2.toByteArrayAndClose(storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME).getPayload().openStream());
+      storageStrategy.list(CONTAINER_NAME, ListContainerOptions.NONE);
+      storageStrategy.removeBlob(CONTAINER_NAME, BLOB_NAME);
+
+      Map<String, TimerStatistics> operations = metrics.getOperations();
+      assertThat(operations.keySet()).containsOnly("PUT", "GET", "LIST", "DELETE");
+      assertThat(operations.get("PUT").getCount()).isEqualTo(1);
+      assertThat(operations.get("PUT").getMaxMillis()).isGreaterThanOrEqualTo(5);
+      assertThat(metrics.getSlowOperations()).isGreaterThanOrEqualTo(1);
+      assertThat(metrics.getChunksWritten()).isEqualTo(3);
+      assertThat(metrics.getChunkBytesWritten()).isEqualTo(content.size());
+      assertThat(metrics.getChunksRead()).isEqualTo(3);
+      assertThat(metrics.getChunkBytesRead()).isEqualTo(content.size());
+
+      metrics.reset();
+      assertThat(metrics.getOperations()).isEmpty();
+      assertThat(metrics.getChunksWritten()).isZero();
+      assertThat(metrics.getContainerCacheHits()).isZero();
+   }
+
+   @Test
+   public void testBlobCache() throws IOException {
+      setUpWithProperties(ImmutableMap.of(JdbcConstants.PROPERTY_BLOB_CACHE_SIZE, String.valueOf(1024 * 1024)));
+      JdbcService jdbcService = injector.getInstance(JdbcService.class);
+      BlobCache blobCache = injector.getInstance(BlobCache.class);
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      ByteSource content = randomByteSource().slice(0, 32 * 1024);
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(content).build());
+      ByteSource bigContent = randomByteSource().slice(0, 128 * 1024);
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name("big").payload(bigContent).build());
+
+      Blob blob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      assertThat(ByteStreams2.toByteArrayAndClose(blob.getPayload().openStream())).isEqualTo(content.read());
+      assertThat(blobCache.get(CONTAINER_NAME, BLOB_NAME)).isNotNull();
+      storageStrategy.getBlob(CONTAINER_NAME, "big");
+      assertThat(blobCache.get(CONTAINER_NAME, "big")).isNull();
+
+      // served without reading the database
+      jdbcService.deleteBlob(CONTAINER_NAME, BLOB_NAME);
+      Blob cached = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      assertThat(cached.getMetadata().getETag()).isEqualTo(blob.getMetadata().getETag());
+      assertThat(cached.getMetadata().getContentMetadata().getContentLength()).isEqualTo(content.size());
+      assertThat(ByteStreams2.toByteArrayAndClose(cached.getPayload().openStream())).isEqualTo(content.read());
+      assertThat(storageStrategy.getBlobMetadata(CONTAINER_NAME, BLOB_NAME).getETag())
+            .isEqualTo(blob.getMetadata().getETag());
+      assertThat(blobCache.stats().hitCount()).isGreaterThanOrEqualTo(2);
+
+      // writes through the strategy invalidate the cached blob
+      ByteSource newContent = randomByteSource().slice(0, 1024);
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(newContent).build());
+      blob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      assertThat(ByteStreams2.toByteArrayAndClose(blob.getPayload().openStream())).isEqualTo(newContent.read());
+      storageStrategy.setBlobAccess(CONTAINER_NAME, BLOB_NAME, BlobAccess.PUBLIC_READ);
+      assertThat(blobCache.get(CONTAINER_NAME, BLOB_NAME)).isNull();
+      storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      storageStrategy.clearContainer(CONTAINER_NAME);
+      assertThat(blobCache.get(CONTAINER_NAME, BLOB_NAME)).isNull();
+      assertThat(storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME)).isNull();
+   }
+
+   @Test
+   public void testAsyncStorageStrategy() throws Exception {
+      AsyncJdbcStorageStrategy asyncStrategy = injector.getInstance(AsyncJdbcStorageStrategy.class);
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      List<String> keys = Lists.newArrayList();
+      List<ListenableFuture<String>> puts = Lists.newArrayList();
+      for (int i = 0; i < 20; i++) {
+         String key = "blob-" + i;
+         keys.add(key);
+         puts.add(asyncStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(key).payload(key).build()));
+      }
+      assertThat(Futures.allAsList(puts).get()).hasSize(20);
+
+      List<String> requested = Lists.newArrayList(keys);
+      requested.add(5, "missing");
+      Map<String, Blob> blobs = asyncStrategy.getBlobs(CONTAINER_NAME, requested).get();
+      assertThat(blobs.keySet()).containsExactly(keys.toArray(new String[keys.size()]));
+      for (Map.Entry<String, Blob> entry : blobs.entrySet()) {
+         assertThat(ByteStreams2.toByteArrayAndClose(entry.getValue().getPayload().openStream()))
+               .isEqualTo(entry.getKey().getBytes());
+      }
+      assertThat(asyncStrategy.getBlob(CONTAINER_NAME, "blob-3").get().getMetadata().getName()).isEqualTo("blob-3");
+
+      assertThat(asyncStrategy.removeBlobs(CONTAINER_NAME, requested).get()).isEqualTo(20);
+      assertThat(asyncStrategy.blobExists(CONTAINER_NAME, "blob-0").get()).isFalse();
+      assertThat(Iterables.size(storageStrategy.getBlobKeysInsideContainer(CONTAINER_NAME))).isZero();
+   }
+
+   @Test(timeOut = 60000)
+   public void testAsyncStorageStrategyCancelQueued() throws Exception {
+      setUpWithProperties(ImmutableMap.of(JdbcConstants.PROPERTY_ASYNC_THREADS, "1",
+            JdbcConstants.PROPERTY_ASYNC_QUEUE_SIZE, "1"));
+      AsyncJdbcStorageStrategy asyncStrategy = injector.getInstance(AsyncJdbcStorageStrategy.class);
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+
+      // keeps the only thread busy, so that the next operations stay queued
+      final CountDownLatch latch = new CountDownLatch(1);
+      InputStream stream = new FilterInputStream(ByteSource.wrap(getByteArray('a', 1024)).openStream()) {
+         @Override
+         public int read(byte[] b, int off, int len) throws IOException {
+            Uninterruptibles.awaitUninterruptibly(latch);
+            return super.read(b, off, len);
+         }
+      };
+      ListenableFuture<String> put = asyncStrategy.putBlob(CONTAINER_NAME,
+            new BlobBuilderImpl().name(BLOB_NAME).payload(stream).build());
+
+      // each cancelled operation gives its permit back, or the third submission would block
+      for (int i = 0; i < 10; i++) {
+         assertThat(asyncStrategy.getBlob(CONTAINER_NAME, BLOB_NAME).cancel(false)).isTrue();
+      }
+      ListenableFuture<Boolean> exists = asyncStrategy.blobExists(CONTAINER_NAME, BLOB_NAME);
+      latch.countDown();
+      put.get();
+      assertThat(exists.get()).isTrue();
+   }
+
+   @Test
+   public void testCopyBlob() throws IOException {
+      JdbcService jdbcService = injector.getInstance(JdbcService.class);
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      ByteSource content = randomByteSource().slice(0, 3 * 1024 * 1024);
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(content)
+            .contentType("text/plain").userMetadata(ImmutableMap.of("key", "value")).build());
+
+      storageStrategy.copyBlob(CONTAINER_NAME, BLOB_NAME, CONTAINER_NAME, BLOB_NAME + "-copy", null,
+            ImmutableMap.of("key", "copy"));
+      List<Long> chunks = chunkIds(jdbcService, BLOB_NAME);
+      assertThat(chunkIds(jdbcService, BLOB_NAME + "-copy"))
+            .containsExactlyElementsOf(chunks);
+
+      // copying a blob onto itself replaces its metadata
+      storageStrategy.copyBlob(CONTAINER_NAME, BLOB_NAME, CONTAINER_NAME, BLOB_NAME, null,
+            ImmutableMap.of("key", "self"));
+      assertThat(storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME).getMetadata().getUserMetadata())
+            .containsEntry("key", "self");
+
+      storageStrategy.removeBlob(CONTAINER_NAME, BLOB_NAME);
+      Blob copy = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME + "-copy");
+      assertThat(copy.getMetadata().getUserMetadata()).containsEntry("key", "copy");
+      assertThat(copy.getMetadata().getContentMetadata().getContentType()).isEqualTo("text/plain");
+      assertThat(ByteStreams2.hashAndClose(copy.getPayload().openStream(), Hashing.md5()))
+            .isEqualTo(content.hash(Hashing.md5()));
+      storageStrategy.removeBlob(CONTAINER_NAME, BLOB_NAME + "-copy");
+      assertThat(jdbcService.findChunksByIds(chunks)).isEmpty();
+   }
+
+   @Test(expectedExceptions = KeyNotFoundException.class)
+   public void testCopyMissingBlob() {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      storageStrategy.copyBlob(CONTAINER_NAME, BLOB_NAME, CONTAINER_NAME, BLOB_NAME + "-copy", null, null);
+   }
+
+   @Test
+   public void testMultipartUpload() throws IOException {
+      JdbcService jdbcService = injector.getInstance(JdbcService.class);
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      ByteSource part1 = randomByteSource().slice(0, 2 * 1024 * 1024);
+      ByteSource part2 = randomByteSource().slice(0, 100 * 1024);
+      String uploadId = storageStrategy.initiateMultipartUpload(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME)
+            .payload(new byte[0]).contentType("text/plain").userMetadata(ImmutableMap.of("key", "value")).build()
+            .getMetadata(), BlobAccess.PRIVATE);
+
+      // parts can be uploaded in any order, and uploading a part again replaces it
+      String etag2 = storageStrategy.uploadMultipartPart(CONTAINER_NAME, uploadId, 2,
+            Payloads.newByteSourcePayload(part1));
+      etag2 = storageStrategy.uploadMultipartPart(CONTAINER_NAME, uploadId, 2, Payloads.newByteSourcePayload(part2));
+      String etag1 = storageStrategy.uploadMultipartPart(CONTAINER_NAME, uploadId, 1,
+            Payloads.newByteSourcePayload(part1));
+      storageStrategy.uploadMultipartPart(CONTAINER_NAME, uploadId, 3, Payloads.newByteSourcePayload(part2));
+      assertThat(etag2).isEqualTo(part2.hash(Hashing.md5()).toString());
+
+      Map<Integer, String> parts = Maps.newLinkedHashMap();
+      parts.put(1, etag1);
+      parts.put(2, etag2);
+      String etag = jdbcService.completeMultipartUpload(CONTAINER_NAME, uploadId, parts).getEtag();
+      assertThat(etag).endsWith("-2");
+
+      Blob blob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      assertThat(blob.getMetadata().getETag()).isEqualTo(etag);
+      assertThat(blob.getMetadata().getUserMetadata()).containsEntry("key", "value");
+      assertThat(blob.getMetadata().getContentMetadata().getContentType()).isEqualTo("text/plain");
+      assertThat(blob.getMetadata().getContentMetadata().getContentLength()).isEqualTo(part1.size() + part2.size());
+      assertThat(ByteStreams2.hashAndClose(blob.getPayload().openStream(), Hashing.md5()))
+            .isEqualTo(ByteSource.concat(part1, part2).hash(Hashing.md5()));
+
+      List<Long> chunks = chunkIds(jdbcService, BLOB_NAME);
+      storageStrategy.removeBlob(CONTAINER_NAME, BLOB_NAME);
+      assertThat(jdbcService.findChunksByIds(chunks)).isEmpty();
+   }
+
+   @Test(expectedExceptions = KeyNotFoundException.class)
+   public void testAbortMultipartUpload() throws IOException {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      String uploadId = storageStrategy.initiateMultipartUpload(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME)
+            .payload(new byte[0]).build().getMetadata(), BlobAccess.PRIVATE);
+      storageStrategy.uploadMultipartPart(CONTAINER_NAME, uploadId, 1,
+            Payloads.newByteSourcePayload(randomByteSource().slice(0, 1024)));
+      storageStrategy.abortMultipartUpload(CONTAINER_NAME, uploadId);
+      assertThat(storageStrategy.blobExists(CONTAINER_NAME, BLOB_NAME)).isFalse();
+      storageStrategy.uploadMultipartPart(CONTAINER_NAME, uploadId, 2,
+            Payloads.newByteSourcePayload(randomByteSource().slice(0, 1024)));
+   }
+
+   @Test
+   public void testGetBlobMetadata() throws IOException {
+      assertThat(storageStrategy.createContainerInLocation(CONTAINER_NAME, null, null)).isTrue();
+      ByteSource content = randomByteSource().slice(0, 3 * JdbcConstants.DEFAULT_CHUNK_SIZE + 1024);
+      storageStrategy.putBlob(CONTAINER_NAME, new BlobBuilderImpl().name(BLOB_NAME).payload(content)
+            .contentType("text/plain").userMetadata(ImmutableMap.of("key", "value")).build());
+
+      BlobMetadata metadata = storageStrategy.getBlobMetadata(CONTAINER_NAME, BLOB_NAME);
+      assertThat(metadata.getName()).isEqualTo(BLOB_NAME);
+      assertThat(metadata.getContainer()).isEqualTo(CONTAINER_NAME);
+      assertThat(metadata.getType()).isEqualTo(StorageType.BLOB);
+      assertThat(metadata.getSize()).isEqualTo(content.size());
+      assertThat(metadata.getETag()).isEqualTo(content.hash(Hashing.md5()).toString());
+      assertThat(metadata.getUserMetadata()).containsEntry("key", "value");
+      assertThat(metadata.getContentMetadata().getContentType()).isEqualTo("text/plain");
+      assertThat(storageStrategy.getBlobMetadata(CONTAINER_NAME, BLOB_NAME + "-missing")).isNull();
+      assertThat(storageStrategy.getBlobAccess(CONTAINER_NAME, BLOB_NAME)).isEqualTo(BlobAccess.PRIVATE);
+
+      // a range only looks up the chunks it spans
+      Blob blob = storageStrategy.getBlob(CONTAINER_NAME, BLOB_NAME);
+      ByteSource source = (ByteSource) blob.getPayload().getRawContent();
+      long offset = 2 * JdbcConstants.DEFAULT_CHUNK_SIZE - 10;
+      assertThat(source.slice(offset, 20).read()).isEqualTo(content.slice(offset, 20).read());
+   }
+
+   private static List<Long> chunkIds(JdbcService jdbcService, String key) {
+      return jdbcService.findChunkIds(jdbcService.findBlobById(CONTAINER_NAME, key).getPayload().getId());
+   }
+
+   private static List<String> names(Iterable<? extends StorageMetadata> metadata) {
+      List<String> names = Lists.newArrayList();
+      for (StorageMetadata storageMetadata : metadata) {
+         names.add(storageMetadata.getName());
+      }
+      return names;
+   }
+
     private byte[] getByteArray(char c, int len) {
         byte[] array = new byte[len];
         Arrays.fill(array, (byte) c);